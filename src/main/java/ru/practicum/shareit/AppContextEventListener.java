@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.StringJoiner;
 
 @Slf4j
 @Component
@@ -17,12 +18,12 @@ public class AppContextEventListener {
 
     @EventListener
     public void handleContextRefreshed(ContextRefreshedEvent event) {
-        printActiveProperties((ConfigurableEnvironment) event.getApplicationContext().getEnvironment());
+        if (log.isDebugEnabled()) {
+            logActiveProperties((ConfigurableEnvironment) event.getApplicationContext().getEnvironment());
+        }
     }
 
-    private void printActiveProperties(ConfigurableEnvironment env) {
-
-        System.out.println("************************* ACTIVE APP PROPERTIES ******************************");
+    private void logActiveProperties(ConfigurableEnvironment env) {
 
         List<MapPropertySource> propertySources = new ArrayList<>();
 
@@ -32,6 +33,7 @@ public class AppContextEventListener {
             }
         });
 
+        StringJoiner properties = new StringJoiner(System.lineSeparator());
         propertySources.stream()
                 .map(propertySource -> propertySource.getSource().keySet())
                 .flatMap(Collection::stream)
@@ -39,11 +41,11 @@ public class AppContextEventListener {
                 .sorted()
                 .forEach(key -> {
                     try {
-                        System.out.println(key + "=" + env.getProperty(key));
+                        properties.add(key + "=" + env.getProperty(key));
                     } catch (Exception e) {
                         log.warn("{} -> {}", key, e.getMessage());
                     }
                 });
-        System.out.println("******************************************************************************");
+        log.debug("Active app properties:{}{}", System.lineSeparator(), properties);
     }
-}
\ No newline at end of file
+}
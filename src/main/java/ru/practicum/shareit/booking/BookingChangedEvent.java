@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+/**
+ * Published when a booking of the item is created or changes status.
+ */
+@Value
+public class BookingChangedEvent {
+    Long itemId;
+}
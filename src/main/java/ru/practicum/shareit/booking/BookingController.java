@@ -2,16 +2,26 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingViewDto;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.utils.Constants;
+import ru.practicum.shareit.utils.CursorPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -24,42 +34,99 @@ public class BookingController {
 
     @PostMapping
     public BookingOutDto create(@RequestHeader(Constants.USER_HEADER) Long userId, @Valid @RequestBody BookingDto bookingDto) {
-        log.info("Request for new booking for userId: {}", userId);
+        log.debug("Request for new booking for userId: {}", userId);
         return bookingService.add(userId, bookingDto);
     }
 
+    @PatchMapping("/bulk")
+    public BookingBulkResultDto updateStatuses(@RequestHeader(Constants.USER_HEADER) Long userId,
+                                               @RequestBody @NotEmpty List<@NotNull @Valid BookingDecisionDto> decisions) {
+        log.debug("Update status of {} bookings of userId: {}", decisions.size(), userId);
+        return bookingService.updateAll(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingOutDto updateStatus(@RequestHeader(Constants.USER_HEADER) Long userId,
                                       @PathVariable("bookingId")
                                       Long bookingId,
                                       @RequestParam(name = "approved") Boolean approved) {
-        log.info("Update item's booking status of userId: {}", userId);
+        log.debug("Update item's booking status of userId: {}", userId);
         return bookingService.update(userId, bookingId, approved);
     }
 
+    @GetMapping("/summary")
+    public Map<BookingState, Long> getSummary(@RequestHeader(Constants.USER_HEADER) Long userId) {
+        log.debug("Get booking summary of userId: {}", userId);
+        return bookingService.findSummary(BookingRole.BOOKER, userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public Map<BookingState, Long> getOwnerSummary(@RequestHeader(Constants.USER_HEADER) Long ownerId) {
+        log.debug("Get booking summary of ownerId: {}", ownerId);
+        return bookingService.findSummary(BookingRole.OWNER, ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingOutDto findBookingById(@RequestHeader(Constants.USER_HEADER) Long userId,
                                          @PathVariable("bookingId")
                                          Long bookingId) {
-        log.info("Get booking status form userId: {}", userId);
+        log.debug("Get booking status form userId: {}", userId);
         return bookingService.findBookingByUserId(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingOutDto> findAllForUser(@RequestHeader(Constants.USER_HEADER) Long userId,
-                                              @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
-                                              @RequestParam(required = false) @Min(0) Integer from,
-                                              @RequestParam(required = false) @Min(1) Integer size) {
-        log.info("Get all booking for userId: {} and status: {}", userId, bookingState);
-        return bookingService.findAll(userId, bookingState, from, size);
+    public ResponseEntity<List<BookingOutDto>> findAllForUser(@RequestHeader(Constants.USER_HEADER) Long userId,
+                                                              @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
+                                                              @RequestParam(required = false) @Min(0) Integer from,
+                                                              @RequestParam(required = false) @Min(1) Integer size,
+                                                              @RequestParam(required = false) String after) {
+        log.debug("Get all booking for userId: {} and status: {}", userId, bookingState);
+        if (after != null) {
+            return toResponse(bookingService.findAllAfter(userId, bookingState, after, size));
+        }
+        return ResponseEntity.ok(bookingService.findAll(userId, bookingState, from, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingOutDto> getAllOwnerBookings(@RequestHeader(Constants.USER_HEADER) Long ownerId,
-                                                   @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
-                                                   @RequestParam(required = false) @Min(0) Integer from,
-                                                   @RequestParam(required = false) @Min(1) Integer size) {
-        log.info("Get all bookings of ownerId: {} and status: {}", ownerId, bookingState);
-        return bookingService.findAllOwner(ownerId, bookingState, from, size);
+    public ResponseEntity<List<BookingOutDto>> getAllOwnerBookings(@RequestHeader(Constants.USER_HEADER) Long ownerId,
+                                                                   @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
+                                                                   @RequestParam(required = false) @Min(0) Integer from,
+                                                                   @RequestParam(required = false) @Min(1) Integer size,
+                                                                   @RequestParam(required = false) String after) {
+        log.debug("Get all bookings of ownerId: {} and status: {}", ownerId, bookingState);
+        if (after != null) {
+            return toResponse(bookingService.findAllOwnerAfter(ownerId, bookingState, after, size));
+        }
+        return ResponseEntity.ok(bookingService.findAllOwner(ownerId, bookingState, from, size));
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<BookingViewDto>> findViewsForUser(@RequestHeader(Constants.USER_HEADER) Long userId,
+                                                                 @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
+                                                                 @RequestParam String fields,
+                                                                 @RequestParam(required = false) @Min(0) Integer from,
+                                                                 @RequestParam(required = false) @Min(1) Integer size,
+                                                                 @RequestParam(required = false) String after) {
+        log.debug("Get {} of bookings for userId: {} and status: {}", fields, userId, bookingState);
+        return toResponse(bookingService.findViews(BookingRole.BOOKER, userId, bookingState, fields, from, size, after));
+    }
+
+    @GetMapping(value = "/owner", params = "fields")
+    public ResponseEntity<List<BookingViewDto>> findOwnerViews(@RequestHeader(Constants.USER_HEADER) Long ownerId,
+                                                               @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
+                                                               @RequestParam String fields,
+                                                               @RequestParam(required = false) @Min(0) Integer from,
+                                                               @RequestParam(required = false) @Min(1) Integer size,
+                                                               @RequestParam(required = false) String after) {
+        log.debug("Get {} of bookings of ownerId: {} and status: {}", fields, ownerId, bookingState);
+        return toResponse(bookingService.findViews(BookingRole.OWNER, ownerId, bookingState, fields, from, size, after));
+    }
+
+    private <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(Constants.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
     }
 }
\ No newline at end of file
@@ -2,11 +2,23 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBooking;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.dto.UserShortDto;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
 
 @UtilityClass
 public class BookingMapper {
@@ -29,4 +41,33 @@ public class BookingMapper {
                 UserMapper.toUserDto(booking.getBooker()),
                 booking.getStatus());
     }
+
+    public BookingViewDto toBookingViewDto(BookingView view, Set<BookingField> fields) {
+        return new BookingViewDto(
+                fields.contains(BookingField.ID) ? view.getId() : null,
+                fields.contains(BookingField.START) ? view.getStart() : null,
+                view.getEnd(),
+                view.getStatus(),
+                fields.contains(BookingField.ITEM) ? new ItemShortDto(view.getItemId(), view.getItemName()) : null,
+                fields.contains(BookingField.BOOKER) ? new UserShortDto(view.getBookerId()) : null);
+    }
+
+    public BookingShortDto toBookingShortDto(ItemBooking booking) {
+        return new BookingShortDto(
+                booking.getId(),
+                booking.getBookerId(),
+                booking.getStart(),
+                booking.getEnd());
+    }
+
+    public Map<BookingState, Long> toSummary(BookingStateCounts counts) {
+        Map<BookingState, Long> summary = new EnumMap<>(BookingState.class);
+        summary.put(BookingState.ALL, counts.getAll());
+        summary.put(BookingState.CURRENT, counts.getCurrent());
+        summary.put(BookingState.PAST, counts.getPast());
+        summary.put(BookingState.FUTURE, counts.getFuture());
+        summary.put(BookingState.WAITING, counts.getWaiting());
+        summary.put(BookingState.REJECTED, counts.getRejected());
+        return Collections.unmodifiableMap(summary);
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.model;
+
+import java.util.Arrays;
+
+/**
+ * Booking property that can be requested with the {@code fields} parameter of booking lists.
+ */
+public enum BookingField {
+    ID,
+    START,
+    END,
+    STATUS,
+    ITEM,
+    BOOKER;
+
+    public static BookingField from(String field) {
+        return Arrays.stream(BookingField.values())
+                .filter(value -> value.name().equalsIgnoreCase(field))
+                .findFirst()
+                .orElse(null);
+    }
+}
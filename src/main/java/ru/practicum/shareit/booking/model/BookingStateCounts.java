@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * Number of bookings of a user in every {@link BookingState}.
+ */
+public interface BookingStateCounts {
+
+    long getAll();
+
+    long getCurrent();
+
+    long getPast();
+
+    long getFuture();
+
+    long getWaiting();
+
+    long getRejected();
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a booking list row. Id and start are always selected, they order the list
+ * and make the cursor; the others are null unless their {@link BookingField} was requested.
+ */
+@Value
+@AllArgsConstructor
+public class BookingView {
+
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    Long itemId;
+    String itemName;
+    Long bookerId;
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Per-item index of WAITING and APPROVED booking periods.
+ * Periods of one item never overlap, so the closest period starting before the end
+ * of a new booking is the only one that has to be checked.
+ * An item is loaded from the database the first time it is booked, and dropped again once it
+ * has not been booked for {@code shareit.bookings.timelines.expire-after-access}.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, ItemTimeline> timelines;
+
+    @Autowired
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.timelines.expire-after-access:10m}")
+                                Duration expireAfterAccess) {
+        this(bookingRepository, expireAfterAccess, Ticker.systemTicker());
+    }
+
+    public BookingIntervalIndex(BookingRepository bookingRepository, Duration expireAfterAccess, Ticker ticker) {
+        this.bookingRepository = bookingRepository;
+        // no size bound: evicting an item with an uncommitted reservation would let an overlap through
+        this.timelines = Caffeine.newBuilder()
+                .expireAfterAccess(expireAfterAccess)
+                .ticker(ticker)
+                .build();
+    }
+
+    public void reserve(Booking booking) {
+        Period period = new Period(booking.getId(), booking.getStart(), booking.getEnd());
+        ItemTimeline timeline = timelines.get(booking.getItem().getId(), itemId -> new ItemTimeline());
+        synchronized (timeline) {
+            if (!timeline.loaded) {
+                load(booking.getItem().getId(), booking.getId(), timeline);
+            }
+            timeline.prune(LocalDateTime.now());
+            if (timeline.findOverlap(period) != null) {
+                throw new ValidationException("Item is already booked for this time");
+            }
+            timeline.periods.add(period);
+        }
+        afterCompletion(false, () -> remove(booking.getItem().getId(), period));
+    }
+
+    public void release(Booking booking) {
+        Period period = new Period(booking.getId(), booking.getStart(), booking.getEnd());
+        afterCompletion(true, () -> remove(booking.getItem().getId(), period));
+    }
+
+    /**
+     * The booking being reserved is already saved, so the query returns it too; it is left out,
+     * otherwise it would be found as the overlap and hide the stored booking it conflicts with.
+     */
+    private void load(Long itemId, Long reservedId, ItemTimeline timeline) {
+        for (BookingPeriod bookingPeriod : bookingRepository.findAllByItemIdAndStatusInAndEndAfter(itemId,
+                ACTIVE_STATUSES, LocalDateTime.now())) {
+            if (bookingPeriod.getId().equals(reservedId)) {
+                continue;
+            }
+            timeline.periods.add(new Period(bookingPeriod.getId(), bookingPeriod.getStart(), bookingPeriod.getEnd()));
+        }
+        timeline.loaded = true;
+    }
+
+    private void remove(Long itemId, Period period) {
+        ItemTimeline timeline = timelines.getIfPresent(itemId);
+        if (timeline == null) {
+            return;
+        }
+        synchronized (timeline) {
+            timeline.periods.remove(period);
+        }
+    }
+
+    private void afterCompletion(boolean onCommit, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    @AllArgsConstructor
+    private static class Period {
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+    }
+
+    private static class ItemTimeline {
+
+        private static final Comparator<Period> ORDER = Comparator.comparing((Period period) -> period.start)
+                .thenComparing(period -> period.bookingId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final TreeSet<Period> periods = new TreeSet<>(ORDER);
+        private boolean loaded;
+
+        private Period findOverlap(Period period) {
+            Period before = periods.lower(new Period(null, period.end, null));
+            if (before != null && before.end.isAfter(period.start)) {
+                return before;
+            }
+            return null;
+        }
+
+        private void prune(LocalDateTime now) {
+            while (!periods.isEmpty() && periods.first().end.isBefore(now)) {
+                periods.pollFirst();
+            }
+        }
+    }
+}
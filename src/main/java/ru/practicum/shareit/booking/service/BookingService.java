@@ -1,17 +1,31 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.dto.BookingBulkErrorDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingViewDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.storage.ItemRepository;
@@ -19,10 +33,19 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.Batches;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +56,8 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public BookingOutDto add(Long userId, BookingDto bookingDto) {
@@ -52,10 +77,16 @@ public class BookingService {
             throw new ValidationException("Item start time is not valid");
         }
 
-        Booking booking = BookingMapper.toBooking(user, item, bookingDto);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(user, item, bookingDto));
+        bookingIntervalIndex.reserve(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(item.getId()));
+        return BookingMapper.toBookingOut(booking);
     }
 
+    /**
+     * The status changes only if the booking is still WAITING at the time of the update,
+     * so of concurrent decisions on one booking exactly one succeeds.
+     */
     @Transactional
     public BookingOutDto update(Long userId, Long bookingId, Boolean approved) {
         Booking booking = checkBooking(userId, bookingId, 1);
@@ -63,8 +94,73 @@ public class BookingService {
             throw new NotFoundException("Booking not found");
         }
         BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, newStatus) == 0) {
+            throw new ValidationException("Booking is not in WAITING status");
+        }
         booking.setStatus(newStatus);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        if (newStatus == BookingStatus.REJECTED) {
+            bookingIntervalIndex.release(booking);
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getItem().getId()));
+        return BookingMapper.toBookingOut(booking);
+    }
+
+    /**
+     * Loads the bookings of all decisions at once and applies the valid ones in one batch of
+     * conditional updates. Decisions that cannot be applied, including those that lost a race
+     * with another decision on the same booking, are returned with the reason.
+     */
+    @Transactional
+    public BookingBulkResultDto updateAll(Long userId, List<BookingDecisionDto> decisions) {
+        List<Long> ids = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Booking> bookings = new HashMap<>();
+        for (List<Long> batch : Batches.partition(ids, Batches.IN_CLAUSE_SIZE)) {
+            bookingRepository.findAllWithItemByIdIn(batch).forEach(booking -> bookings.put(booking.getId(), booking));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        List<BookingBulkErrorDto> failed = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            String error = null;
+            if (!seen.add(bookingId)) {
+                error = "Duplicate booking id";
+            } else if (booking == null) {
+                error = "Booking not found";
+            } else if (!booking.getItem().getOwner().getId().equals(userId)) {
+                error = "User is not owner";
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                error = "Booking is not in WAITING status";
+            }
+            if (error != null) {
+                failed.add(new BookingBulkErrorDto(bookingId, error));
+            } else {
+                statuses.put(bookingId, decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            }
+        }
+
+        Set<Long> applied = bookingRepository.updateStatusesIfWaiting(statuses);
+        List<Long> updated = new ArrayList<>();
+        statuses.forEach((bookingId, status) -> {
+            if (!applied.contains(bookingId)) {
+                failed.add(new BookingBulkErrorDto(bookingId, "Booking is not in WAITING status"));
+                return;
+            }
+            if (status == BookingStatus.REJECTED) {
+                bookingIntervalIndex.release(bookings.get(bookingId));
+            }
+            updated.add(bookingId);
+        });
+        updated.stream()
+                .map(bookingId -> bookings.get(bookingId).getItem().getId())
+                .distinct()
+                .forEach(itemId -> eventPublisher.publishEvent(new BookingChangedEvent(itemId)));
+        return new BookingBulkResultDto(updated, failed);
     }
 
     public BookingOutDto findBookingByUserId(Long userId, Long bookingId) {
@@ -74,83 +170,87 @@ public class BookingService {
     }
 
     public List<BookingOutDto> findAll(Long bookerId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of((from == null ? 0 : from) / ((size == null || size < 1) ? 10 : size), (size == null || size < 1) ? 10 : size);
         userService.findById(bookerId);
-        switch (checkState(state)) {
-            case ALL:
-                return bookingRepository.findAllBookingsByBookerId(bookerId, pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
-        }
+        return findPage(BookingRole.BOOKER, bookerId, checkState(state), from, size);
     }
 
     public List<BookingOutDto> findAllOwner(Long ownerId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of((from == null ? 0 : from) / ((size == null || size < 1) ? 10 : size), (size == null || size < 1) ? 10 : size);
+        userService.findById(ownerId);
+        return findPage(BookingRole.OWNER, ownerId, checkState(state), from, size);
+    }
+
+    /**
+     * Number of bookings in every state; cached for a few seconds, so counts may lag behind new bookings.
+     */
+    @Cacheable(CacheConfig.BOOKING_SUMMARIES)
+    public Map<BookingState, Long> findSummary(BookingRole role, Long userId) {
+        userService.findById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        BookingStateCounts counts = role == BookingRole.OWNER
+                ? bookingRepository.countStatesByOwnerId(userId, now)
+                : bookingRepository.countStatesByBookerId(userId, now);
+        return BookingMapper.toSummary(counts);
+    }
+
+    public CursorPage<BookingOutDto> findAllAfter(Long bookerId, String state, String after, Integer size) {
+        userService.findById(bookerId);
+        return findSlice(BookingRole.BOOKER, bookerId, checkState(state), after, size);
+    }
 
+    public CursorPage<BookingOutDto> findAllOwnerAfter(Long ownerId, String state, String after, Integer size) {
         userService.findById(ownerId);
-        switch (checkState(state)) {
-            case ALL:
-                return bookingRepository.findAllBookingsByOwnerId(ownerId, pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByOwnerId(ownerId, pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
+        return findSlice(BookingRole.OWNER, ownerId, checkState(state), after, size);
+    }
+
+    /**
+     * Booking list with only the requested {@code fields}, read as plain columns without loading entities.
+     * Like the full lists, a cursor to the next page is returned only when {@code after} is given.
+     */
+    public CursorPage<BookingViewDto> findViews(BookingRole role, Long userId, String state, String fields,
+                                                Integer from, Integer size, String after) {
+        userService.findById(userId);
+        BookingState bookingState = checkState(state);
+        Set<BookingField> bookingFields = checkFields(fields);
+        int pageSize = (size == null || size < 1) ? 10 : size;
+        Slice<BookingView> slice = after != null
+                ? bookingRepository.findViewsAfter(role, userId, bookingState, bookingFields, LocalDateTime.now(),
+                BookingCursor.decode(after), pageSize)
+                : bookingRepository.findViewsByRole(role, userId, bookingState, bookingFields, LocalDateTime.now(),
+                PageRequest.of((from == null ? 0 : from) / pageSize, pageSize));
+        List<BookingViewDto> bookings = slice.stream()
+                .map(view -> BookingMapper.toBookingViewDto(view, bookingFields))
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (after != null && slice.hasNext()) {
+            BookingView last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new BookingCursor(last.getStart(), last.getId()).encode();
         }
+        return new CursorPage<>(bookings, nextCursor);
     }
 
+    private List<BookingOutDto> findPage(BookingRole role, Long userId, BookingState state, Integer from,
+                                         Integer size) {
+        Pageable pageable = PageRequest.of((from == null ? 0 : from) / ((size == null || size < 1) ? 10 : size), (size == null || size < 1) ? 10 : size);
+        return bookingRepository.findAllByRole(role, userId, state, LocalDateTime.now(), pageable).stream()
+                .map(BookingMapper::toBookingOut)
+                .collect(Collectors.toList());
+    }
+
+    private CursorPage<BookingOutDto> findSlice(BookingRole role, Long userId, BookingState state, String after,
+                                                Integer size) {
+        Slice<Booking> slice = bookingRepository.findAllAfter(role, userId, state, LocalDateTime.now(),
+                BookingCursor.decode(after), (size == null || size < 1) ? 10 : size);
+        List<BookingOutDto> bookings = slice.stream()
+                .map(BookingMapper::toBookingOut)
+                .collect(Collectors.toList());
+        String nextCursor = slice.hasNext()
+                ? BookingCursor.of(slice.getContent().get(slice.getNumberOfElements() - 1)).encode()
+                : null;
+        return new CursorPage<>(bookings, nextCursor);
+    }
 
     private Booking checkBooking(Long userId, Long bookingId, Integer number) {
-        Optional<Booking> bookingById = bookingRepository.findById(bookingId);
+        Optional<Booking> bookingById = bookingRepository.findWithItemAndBookerById(bookingId);
         if (bookingById.isEmpty()) {
             throw new NotFoundException("Booking not found.");
         }
@@ -174,6 +274,21 @@ public class BookingService {
         return null;
     }
 
+    private Set<BookingField> checkFields(String fields) {
+        Set<BookingField> bookingFields = EnumSet.noneOf(BookingField.class);
+        for (String field : fields.split(",")) {
+            if (field.isBlank()) {
+                continue;
+            }
+            BookingField bookingField = BookingField.from(field.trim());
+            if (bookingField == null) {
+                throw new ValidationException("Unknown field: " + field.trim());
+            }
+            bookingFields.add(bookingField);
+        }
+        return bookingFields.isEmpty() ? EnumSet.allOf(BookingField.class) : bookingFields;
+    }
+
     private BookingState checkState(String bookingState) {
         BookingState state = BookingState.from(bookingState);
         if (state == null) {
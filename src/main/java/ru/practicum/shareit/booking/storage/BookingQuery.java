@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Booking list query for one role and state.
+ * Every combination is built once and only binds parameters afterwards, so each one keeps
+ * a single statement shape that the query plan and prepared statement caches can reuse.
+ */
+public final class BookingQuery {
+
+    private static final BookingQuery[][][] QUERIES =
+            new BookingQuery[BookingRole.values().length][BookingState.values().length][2];
+
+    static {
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingState state : BookingState.values()) {
+                QUERIES[role.ordinal()][state.ordinal()][0] = new BookingQuery(role, state, false);
+                QUERIES[role.ordinal()][state.ordinal()][1] = new BookingQuery(role, state, true);
+            }
+        }
+    }
+
+    private final BookingRole role;
+    private final BookingState state;
+    private final boolean keyset;
+    private final String conditions;
+    private final String jpql;
+    private final ConcurrentMap<Set<BookingField>, String> viewJpql = new ConcurrentHashMap<>();
+
+    private BookingQuery(BookingRole role, BookingState state, boolean keyset) {
+        this.role = role;
+        this.state = state;
+        this.keyset = keyset;
+
+        StringBuilder query = new StringBuilder();
+        if (role == BookingRole.OWNER) {
+            query.append(" where i.owner.id = :userId");
+        } else {
+            query.append(" where b.booker.id = :userId");
+        }
+        switch (state) {
+            case CURRENT:
+                query.append(" and b.start <= :now and b.end >= :now");
+                break;
+            case PAST:
+                query.append(" and b.end < :now");
+                break;
+            case FUTURE:
+                query.append(" and b.start > :now");
+                break;
+            case WAITING:
+                query.append(" and b.status = :status and b.start > :now");
+                break;
+            case REJECTED:
+                query.append(" and b.status = :status");
+                break;
+        }
+        if (keyset) {
+            // start <= :afterStart keeps the predicate a range scan on (user, start_time)
+            query.append(" and b.start <= :afterStart and (b.start < :afterStart or b.id < :afterId)");
+        }
+        query.append(" order by b.start desc, b.id desc");
+        this.conditions = query.toString();
+        this.jpql = "select b " + from(role == BookingRole.OWNER) + conditions;
+    }
+
+    public static BookingQuery of(BookingRole role, BookingState state, boolean keyset) {
+        return QUERIES[role.ordinal()][state.ordinal()][keyset ? 1 : 0];
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    /**
+     * Selects only the columns of {@code fields}, plus id and start, which order the rows.
+     * Items are joined only when the owner is filtered or the item is requested.
+     */
+    public String getViewJpql(Set<BookingField> fields) {
+        return viewJpql.computeIfAbsent(fields.isEmpty() ? EnumSet.noneOf(BookingField.class) : EnumSet.copyOf(fields),
+                this::buildViewJpql);
+    }
+
+    public TypedQuery<Booking> create(EntityManager entityManager, Long userId, LocalDateTime currentTime,
+                                      BookingCursor after) {
+        return bind(entityManager.createQuery(jpql, Booking.class), userId, currentTime, after);
+    }
+
+    public TypedQuery<Tuple> createView(EntityManager entityManager, Set<BookingField> fields, Long userId,
+                                        LocalDateTime currentTime, BookingCursor after) {
+        return bind(entityManager.createQuery(getViewJpql(fields), Tuple.class), userId, currentTime, after);
+    }
+
+    private String buildViewJpql(Set<BookingField> fields) {
+        StringBuilder query = new StringBuilder("select b.id as id, b.start as startTime");
+        if (fields.contains(BookingField.END)) {
+            query.append(", b.end as endTime");
+        }
+        if (fields.contains(BookingField.STATUS)) {
+            query.append(", b.status as status");
+        }
+        if (fields.contains(BookingField.ITEM)) {
+            query.append(", i.id as itemId, i.name as itemName");
+        }
+        if (fields.contains(BookingField.BOOKER)) {
+            query.append(", b.booker.id as bookerId");
+        }
+        return query.append(' ')
+                .append(from(role == BookingRole.OWNER || fields.contains(BookingField.ITEM)))
+                .append(conditions)
+                .toString();
+    }
+
+    private static String from(boolean joinItem) {
+        return joinItem ? "from Booking b join b.item i" : "from Booking b";
+    }
+
+    private <T> TypedQuery<T> bind(TypedQuery<T> query, Long userId, LocalDateTime currentTime, BookingCursor after) {
+        query.setParameter("userId", userId);
+        if (state != BookingState.ALL && state != BookingState.REJECTED) {
+            query.setParameter("now", currentTime);
+        }
+        if (state == BookingState.WAITING || state == BookingState.REJECTED) {
+            query.setParameter("status", BookingStatus.valueOf(state.name()));
+        }
+        if (keyset) {
+            query.setParameter("afterStart", after.getStart())
+                    .setParameter("afterId", after.getId());
+        }
+        return query;
+    }
+}
@@ -1,111 +1,94 @@
 package ru.practicum.shareit.booking.storage;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBooking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.BulkInsertRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends PagingAndSortingRepository<Booking, Long> {
-    @Query(value = "SELECT b.* from bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllBookingsByBookerId(Long bookerId, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND ?2 BETWEEN b.start_time AND b.end_time " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllCurrentBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.end_time < ?2 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllPastBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.start_time > ?2 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllFutureBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.status = 'WAITING' " +
-            "AND b.start_time > ?2 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllWaitingBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.status = 'REJECTED' " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllRejectedBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id  " +
-            "WHERE i.owner_id = ?1 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllBookingsByOwnerId(Long ownerId, Pageable pageable);
+public interface BookingRepository extends PagingAndSortingRepository<Booking, Long>, BookingRepositoryCustom,
+        BulkInsertRepository<Booking> {
 
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND ?2 BETWEEN b.start_time AND b.end_time " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllCurrentBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
+    String STATE_COUNTS = "COUNT(*) AS \"all\", " +
+            "COUNT(*) FILTER (WHERE b.start_time <= :now AND b.end_time >= :now) AS \"current\", " +
+            "COUNT(*) FILTER (WHERE b.end_time < :now) AS \"past\", " +
+            "COUNT(*) FILTER (WHERE b.start_time > :now) AS \"future\", " +
+            "COUNT(*) FILTER (WHERE b.status = 'WAITING' AND b.start_time > :now) AS \"waiting\", " +
+            "COUNT(*) FILTER (WHERE b.status = 'REJECTED') AS \"rejected\" ";
 
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.end_time < ?2 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllPastBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.start_time > ?2 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllFutureBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
+    @EntityGraph(attributePaths = "item")
+    List<Booking> findAllWithItemByIdIn(Collection<Long> ids);
 
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.status = 'WAITING' " +
-            "AND b.start_time > ?2 " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllWaitingBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
+    /**
+     * Moves a WAITING booking to {@code status}; returns 0 when the booking has left WAITING in the meantime.
+     * The persistence context is cleared, so a booking loaded before is detached and not written again.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id = :id and b.status = :waiting")
+    int updateStatusIfWaiting(@Param("id") Long id, @Param("status") BookingStatus status,
+                              @Param("waiting") BookingStatus waiting);
 
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.status = 'REJECTED' " +
-            "ORDER BY b.start_time DESC", nativeQuery = true)
-    Page<Booking> findAllRejectedBookingsByOwnerId(Long ownerId, Pageable pageable);
+    default int updateStatusIfWaiting(Long id, BookingStatus status) {
+        return updateStatusIfWaiting(id, status, BookingStatus.WAITING);
+    }
 
     @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
             "WHERE b.booker_id = ?1 " +
-            "AND i.id = ?2 " +
+            "AND b.item_id = ?2 " +
             "AND b.status = 'APPROVED' " +
             "AND b.end_time < ?3 ", nativeQuery = true)
     List<Booking> findAllByUserBookings(Long userId, Long itemId, LocalDateTime now);
 
     List<Booking> findAllByItemInAndStatusOrderByStartAsc(List<Item> items, BookingStatus status);
 
-    List<Booking> findAllByItemAndStatusOrderByStartAsc(Item item, BookingStatus bookingStatus);
+    /**
+     * Last approved booking started at or before {@code now} and next one starting after it, per item.
+     */
+    @Query(value = "SELECT t.id, t.item_id AS itemId, t.booker_id AS bookerId, " +
+            "t.start_time AS start, t.end_time AS \"end\" " +
+            "FROM (SELECT b.id, b.item_id, b.booker_id, b.start_time, b.end_time, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_time > ?2 " +
+            "ORDER BY CASE WHEN b.start_time > ?2 THEN b.start_time END, b.start_time DESC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN ?1 " +
+            "AND b.status = 'APPROVED') AS t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<ItemBooking> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime now);
+
+    /**
+     * Bookings of the booker per state, with the conditions of {@link BookingQuery}, in one pass.
+     */
+    @Query(value = "SELECT " + STATE_COUNTS + "FROM bookings AS b " +
+            "WHERE b.booker_id = :userId", nativeQuery = true)
+    BookingStateCounts countStatesByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT " + STATE_COUNTS + "FROM bookings AS b " +
+            "JOIN items AS i ON i.id = b.item_id " +
+            "WHERE i.owner_id = :userId", nativeQuery = true)
+    BookingStateCounts countStatesByOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now);
+
+    /**
+     * Periods of the item overlapping {@code [from, to)}, a start_time range scan of ix_bookings_item_status_start
+     * per status.
+     */
+    List<BookingPeriod> findAllByItemIdAndStartBeforeAndEndAfterAndStatusInOrderByStartAsc(
+            Long itemId, LocalDateTime to, LocalDateTime from, Collection<BookingStatus> statuses);
+
+    List<BookingPeriod> findAllByItemIdAndStatusInAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                              LocalDateTime time);
 }
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+public interface BookingRepositoryCustom {
+
+    Slice<Booking> findAllByRole(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                 Pageable pageable);
+
+    Slice<Booking> findAllAfter(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                BookingCursor after, int size);
+
+    /**
+     * Moves WAITING bookings to the given statuses in one JDBC batch of conditional updates
+     * and returns the ids whose update took effect.
+     */
+    Set<Long> updateStatusesIfWaiting(Map<Long, BookingStatus> statuses);
+
+    Slice<BookingView> findViewsByRole(BookingRole role, Long userId, BookingState state, Set<BookingField> fields,
+                                       LocalDateTime currentTime, Pageable pageable);
+
+    Slice<BookingView> findViewsAfter(BookingRole role, Long userId, BookingState state, Set<BookingField> fields,
+                                      LocalDateTime currentTime, BookingCursor after, int size);
+}
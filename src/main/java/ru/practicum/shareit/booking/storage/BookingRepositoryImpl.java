@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.hibernate.Session;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Booking> findAllByRole(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                        Pageable pageable) {
+        TypedQuery<Booking> query = BookingQuery.of(role, state, false)
+                .create(entityManager, userId, currentTime, null)
+                .setFirstResult((int) pageable.getOffset());
+        return toSlice(query, pageable);
+    }
+
+    @Override
+    public Slice<Booking> findAllAfter(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                       BookingCursor after, int size) {
+        TypedQuery<Booking> query = BookingQuery.of(role, state, after != null)
+                .create(entityManager, userId, currentTime, after);
+        return toSlice(query, PageRequest.of(0, size));
+    }
+
+    @Override
+    public Set<Long> updateStatusesIfWaiting(Map<Long, BookingStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = new ArrayList<>(statuses.keySet());
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE bookings SET status = ? WHERE id = ? AND status = 'WAITING'")) {
+                for (Long id : ids) {
+                    statement.setString(1, statuses.get(id).name());
+                    statement.setLong(2, id);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+        Set<Long> updated = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                updated.add(ids.get(i));
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public Slice<BookingView> findViewsByRole(BookingRole role, Long userId, BookingState state,
+                                              Set<BookingField> fields, LocalDateTime currentTime,
+                                              Pageable pageable) {
+        TypedQuery<Tuple> query = BookingQuery.of(role, state, false)
+                .createView(entityManager, fields, userId, currentTime, null)
+                .setFirstResult((int) pageable.getOffset());
+        return toViewSlice(query, fields, pageable);
+    }
+
+    @Override
+    public Slice<BookingView> findViewsAfter(BookingRole role, Long userId, BookingState state,
+                                             Set<BookingField> fields, LocalDateTime currentTime,
+                                             BookingCursor after, int size) {
+        TypedQuery<Tuple> query = BookingQuery.of(role, state, after != null)
+                .createView(entityManager, fields, userId, currentTime, after);
+        return toViewSlice(query, fields, PageRequest.of(0, size));
+    }
+
+    private Slice<BookingView> toViewSlice(TypedQuery<Tuple> query, Set<BookingField> fields, Pageable pageable) {
+        List<Tuple> rows = query.setMaxResults(pageable.getPageSize() + 1).getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<BookingView> views = rows.stream()
+                .limit(pageable.getPageSize())
+                .map(row -> new BookingView(
+                        row.get("id", Long.class),
+                        row.get("startTime", LocalDateTime.class),
+                        fields.contains(BookingField.END) ? row.get("endTime", LocalDateTime.class) : null,
+                        fields.contains(BookingField.STATUS) ? row.get("status", BookingStatus.class) : null,
+                        fields.contains(BookingField.ITEM) ? row.get("itemId", Long.class) : null,
+                        fields.contains(BookingField.ITEM) ? row.get("itemName", String.class) : null,
+                        fields.contains(BookingField.BOOKER) ? row.get("bookerId", Long.class) : null))
+                .collect(Collectors.toList());
+        return new SliceImpl<>(views, pageable, hasNext);
+    }
+
+    private Slice<Booking> toSlice(TypedQuery<Booking> query, Pageable pageable) {
+        EntityGraph<Booking> graph = entityManager.createEntityGraph(Booking.class);
+        graph.addAttributeNodes("item", "booker");
+        List<Booking> bookings = query.setHint(EntityGraphType.FETCH.getKey(), graph)
+                .setMaxResults(pageable.getPageSize() + 1).getResultList();
+        boolean hasNext = bookings.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? bookings.subList(0, pageable.getPageSize()) : bookings, pageable, hasNext);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String BOOKING_SUMMARIES = "bookingSummaries";
+    public static final String ITEM_AVAILABILITY = "itemAvailability";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.users.maximum-size:10000}") long usersMaximumSize,
+                                     @Value("${shareit.cache.users.expire-after-write:5m}") Duration usersTtl,
+                                     @Value("${shareit.cache.booking-summaries.maximum-size:10000}")
+                                     long summariesMaximumSize,
+                                     @Value("${shareit.cache.booking-summaries.expire-after-write:5s}")
+                                     Duration summariesTtl,
+                                     @Value("${shareit.cache.item-availability.maximum-size:10000}")
+                                     long availabilityMaximumSize,
+                                     @Value("${shareit.cache.item-availability.expire-after-write:10m}")
+                                     Duration availabilityTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(usersMaximumSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(BOOKING_SUMMARIES, Caffeine.newBuilder()
+                .maximumSize(summariesMaximumSize)
+                .expireAfterWrite(summariesTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ITEM_AVAILABILITY, Caffeine.newBuilder()
+                .maximumSize(availabilityMaximumSize)
+                .expireAfterWrite(availabilityTtl)
+                .recordStats()
+                .build());
+        // puts and evictions are applied after commit, so a rolled back update keeps the cached user
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache regions of {@link User} and {@link Item}, kept in process by Caffeine.
+ * Hibernate updates the regions on writes through the entity manager and closes the cache manager
+ * together with the session factory. The cache is switched on here rather than in application.properties,
+ * so JPA slice tests, which do not load this configuration, run without it.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String USER_REGION = "user";
+    public static final String ITEM_REGION = "item";
+
+    private static final List<String> REGIONS = List.of(USER_REGION, ITEM_REGION);
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(
+            @Value("${shareit.cache.entities.user.maximum-size:10000}") long userMaximumSize,
+            @Value("${shareit.cache.entities.user.expire-after-write:10m}") Duration userTtl,
+            @Value("${shareit.cache.entities.item.maximum-size:50000}") long itemMaximumSize,
+            @Value("${shareit.cache.entities.item.expire-after-write:10m}") Duration itemTtl) {
+        return properties -> {
+            // a manager per session factory, so several application contexts never share regions
+            CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                    .getCacheManager(URI.create("shareit:entities:" + UUID.randomUUID()), getClass().getClassLoader());
+            cacheManager.createCache(USER_REGION, region(userMaximumSize, userTtl));
+            cacheManager.createCache(ITEM_REGION, region(itemMaximumSize, itemTtl));
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : REGIONS) {
+                Gauge.builder("hibernate.cache.region.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                        .tag("region", region)
+                        .description("Share of second-level cache lookups of the region answered from the cache")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+        long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return lookups == 0 ? 0.0 : (double) regionStatistics.getHitCount() / lookups;
+    }
+}
@@ -1,20 +1,45 @@
 package ru.practicum.shareit.exceptions;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.validation.ConstraintViolationException;
+
+/**
+ * Counts every handled exception in {@code shareit.errors}, tagged by exception type and status, and logs
+ * at most {@code shareit.errors.log.per-second} lines a second per type. Client errors are logged without
+ * a stack trace.
+ */
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
 
-    @ExceptionHandler({MethodArgumentNotValidException.class, ValidationException.class})
+    public static final String ERRORS = "shareit.errors";
+
+    private final MeterRegistry meterRegistry;
+    private final ErrorLogLimiter errorLogLimiter;
+
+    public ErrorHandler(ObjectProvider<MeterRegistry> meterRegistry,
+                        @Value("${shareit.errors.log.per-second:10}") int logLinesPerSecond) {
+        // web slice tests have no registry, the global one then drops the counts
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.errorLogLimiter = new ErrorLogLimiter(logLinesPerSecond);
+    }
+
+    @ExceptionHandler({MethodArgumentNotValidException.class, ConstraintViolationException.class,
+            ValidationException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(final Exception e) {
-        log.error("Bad request: {}", e.getMessage());
+        handled(HttpStatus.BAD_REQUEST, "Bad request", e);
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -23,7 +48,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherException(final Exception e) {
-        log.warn("Internal server error {}", e.getMessage(), e);
+        handled(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", e);
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -32,9 +57,28 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(final NotFoundException e) {
-        log.warn("Object not found {}", e.getMessage(), e);
+        handled(HttpStatus.NOT_FOUND, "Object not found", e);
         return new ErrorResponse(
                 e.getMessage()
         );
     }
-}
\ No newline at end of file
+
+    private void handled(HttpStatus status, String description, Exception e) {
+        Counter.builder(ERRORS)
+                .tag("exception", e.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .description("Exceptions turned into error responses")
+                .register(meterRegistry)
+                .increment();
+        long dropped = errorLogLimiter.acquire(e.getClass());
+        if (dropped == ErrorLogLimiter.DROP) {
+            return;
+        }
+        String suffix = dropped > 0 ? " (" + dropped + " similar not logged)" : "";
+        if (status.is5xxServerError()) {
+            log.error("{}: {}{}", description, e.getMessage(), suffix, e);
+        } else {
+            log.warn("{}: {}{}", description, e.getMessage(), suffix);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.exceptions;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets through at most {@code perSecond} log lines a second for each exception type and counts the rest,
+ * so a client probing for missing ids cannot flood the log.
+ */
+class ErrorLogLimiter {
+
+    static final long DROP = -1;
+
+    private final int perSecond;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    ErrorLogLimiter(int perSecond) {
+        this(perSecond, System::nanoTime);
+    }
+
+    ErrorLogLimiter(int perSecond, LongSupplier nanoTime) {
+        this.perSecond = perSecond;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns {@link #DROP} if the line must not be logged, otherwise how many lines of the type were
+     * dropped since the last one logged.
+     */
+    long acquire(Class<?> type) {
+        return windows.computeIfAbsent(type, key -> new Window())
+                .acquire(nanoTime.getAsLong() / 1_000_000_000L);
+    }
+
+    private class Window {
+        private long second = Long.MIN_VALUE;
+        private int logged;
+        private long dropped;
+
+        private synchronized long acquire(long now) {
+            if (now != second) {
+                second = now;
+                logged = 0;
+            }
+            if (logged >= perSecond) {
+                dropped++;
+                return DROP;
+            }
+            logged++;
+            long result = dropped;
+            dropped = 0;
+            return result;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.exceptions;
 
+/**
+ * Rejects a request the client can correct, so like {@link NotFoundException} it carries no stack trace.
+ */
 public class ValidationException extends RuntimeException {
 
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
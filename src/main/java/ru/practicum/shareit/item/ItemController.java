@@ -1,30 +1,92 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportSummary;
 import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.utils.Constants;
+import ru.practicum.shareit.utils.CursorPage;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
+@Validated
 @RequiredArgsConstructor
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemOutDto add(@RequestHeader(Constants.USER_HEADER) Long userId, @Valid @RequestBody ItemDto itemDto) {
         return itemService.add(userId, itemDto);
     }
 
+    /**
+     * Streams the per-row results as {@code {"rows": [...], "created": n, "failed": m}} while the body is imported.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void addAll(@RequestHeader(Constants.USER_HEADER) Long userId,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // nothing reaches the response before the owner is found, so a missing user still answers 404
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream());
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("rows");
+        ItemImportSummary summary = itemImporter.importItems(userId, request.getInputStream(), result -> {
+            try {
+                generator.writeObject(result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        generator.writeNumberField("created", summary.getCreated());
+        generator.writeNumberField("failed", summary.getFailed());
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto findAvailability(@RequestHeader(Constants.USER_HEADER) Long userId,
+                                                @PathVariable("itemId") Long itemId,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime to) {
+        // checked here, a cached availability would skip a check inside the service
+        userService.findById(userId);
+        return itemAvailabilityService.findAvailability(itemId, from, to);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemOutDto update(@RequestHeader(Constants.USER_HEADER) Long userId, @RequestBody ItemDto itemDto, @PathVariable Long itemId) {
         return itemService.update(userId, itemId, itemDto);
@@ -36,13 +98,44 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemOutDto> findAll(@RequestHeader(Constants.USER_HEADER) Long userId) {
-        return itemService.findAll(userId);
+    public ResponseEntity<List<ItemOutDto>> findAll(@RequestHeader(Constants.USER_HEADER) Long userId,
+                                                    @RequestParam(required = false) @Min(0) Integer from,
+                                                    @RequestParam(required = false) @Min(1) Integer size,
+                                                    @RequestParam(required = false) String after) {
+        if (after != null) {
+            return toResponse(itemService.findAllAfter(userId, after, size));
+        }
+        return ResponseEntity.ok(itemService.findAll(userId, from, size));
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestHeader(Constants.USER_HEADER) Long userId, @RequestParam(name = "text") String text) {
-        return itemService.search(userId, text);
+    public ResponseEntity<List<ItemDto>> search(@RequestHeader(Constants.USER_HEADER) Long userId,
+                                                @RequestParam(name = "text") String text,
+                                                @RequestParam(required = false) @Min(0) Integer from,
+                                                @RequestParam(required = false) @Min(1) Integer size,
+                                                @RequestParam(required = false) String after) {
+        if (after != null) {
+            return toResponse(itemService.searchAfter(userId, text, after, size));
+        }
+        return ResponseEntity.ok(itemService.search(userId, text, from, size));
+    }
+
+    @GetMapping("/search/stream")
+    public void searchStream(@RequestHeader(Constants.USER_HEADER) Long userId,
+                             @RequestParam(name = "text") String text,
+                             HttpServletResponse response) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ItemDto.class);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        itemService.streamSearch(userId, text, item -> {
+            try {
+                out.write(writer.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
     }
 
     @PostMapping("/{itemId}/comment")
@@ -51,4 +144,12 @@ public class ItemController {
                                        @PathVariable Long itemId) {
         return itemService.createComment(userId, commentDto, itemId);
     }
-}
\ No newline at end of file
+
+    private <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(Constants.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last item of a page, sent to clients as an opaque {@code after} token.
+ * Pages ordered by id alone, like owner listings and unranked search backends, keep {@code rank} at zero.
+ */
+@Data
+@AllArgsConstructor
+public class ItemCursor {
+
+    private int rank;
+    private Long id;
+
+    public static ItemCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(",");
+            if (parts.length != 2) {
+                throw new ValidationException("Invalid cursor: " + token);
+            }
+            return new ItemCursor(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((rank + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,7 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
@@ -18,7 +18,8 @@ public class ItemMapper {
         );
     }
 
-    public ItemOutDto toItemOutDto(Item item, BookingOutDto lastBooking, List<CommentOutDto> comments, BookingOutDto nextBooking) {
+    public ItemOutDto toItemOutDto(Item item, BookingShortDto lastBooking, List<CommentOutDto> comments,
+                                   BookingShortDto nextBooking) {
         return new ItemOutDto(
                 item.getId(),
                 item.getName(),
@@ -1,7 +1,7 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.*;
-import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import java.util.List;
 import java.util.Objects;
@@ -15,10 +15,10 @@ public class ItemOutDto {
     private String name;
     private String description;
     private Boolean available;
-    private BookingOutDto lastBooking;
+    private BookingShortDto lastBooking;
     @ToString.Exclude
     private List<CommentOutDto> comments;
-    private BookingOutDto nextBooking;
+    private BookingShortDto nextBooking;
     private Long requestId;
 
     public ItemOutDto(Long id, String name, String description, Boolean available) {
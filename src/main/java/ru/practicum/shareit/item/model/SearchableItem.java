@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.model;
+
+public interface SearchableItem {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
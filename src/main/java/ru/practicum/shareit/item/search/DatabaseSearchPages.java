@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
+import ru.practicum.shareit.utils.CursorPage;
+
+import java.util.List;
+
+@UtilityClass
+class DatabaseSearchPages {
+
+    /**
+     * Cuts {@code size + 1} items ordered by id to a page, database backends do not rank.
+     */
+    CursorPage<ItemDto> toCursorPage(List<ItemDto> items, int size) {
+        if (items.size() <= size) {
+            return new CursorPage<>(items, null);
+        }
+        List<ItemDto> page = items.subList(0, size);
+        return new CursorPage<>(page, new ItemCursor(0, page.get(size - 1).getId()).encode());
+    }
+}
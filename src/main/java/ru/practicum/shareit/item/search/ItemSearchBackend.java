@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.CursorPage;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Search over names and descriptions of available items, selected with {@code shareit.search.backend}.
+ */
+public interface ItemSearchBackend {
+
+    String PROPERTY = "shareit.search.backend";
+
+    /**
+     * Page number {@code from / size} of the results, the same paging as {@code /bookings}.
+     */
+    List<ItemDto> search(String text, int from, int size);
+
+    CursorPage<ItemDto> searchAfter(String text, ItemCursor after, int size);
+
+    /**
+     * All results, read lazily; the stream has to be closed and consumed inside a transaction.
+     * The database backends stream in the order of {@link #search}, the in-memory index in item id order.
+     */
+    Stream<ItemDto> stream(String text);
+
+    /**
+     * Called after an item is added or updated, for backends that keep their own copy of items.
+     */
+    default void index(Item item) {
+    }
+}
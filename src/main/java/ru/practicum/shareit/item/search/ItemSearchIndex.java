@@ -0,0 +1,422 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.utils.CursorPage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over names and descriptions of available items.
+ * Every query term has to be a prefix of a word of the item, results are ranked by
+ * exact and prefix matches, name matches weigh more than description matches.
+ * The index is built from the database on startup and kept up to date after commits of
+ * {@link #index(Item)} and user deletions. It assumes a single application node.
+ * Unlike the database backends, which match substrings anywhere in the text, a term only matches
+ * the start of a word.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearchBackend, SmartInitializingSingleton {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+    private static final Comparator<ScoredDocument> RANKING = Comparator
+            .comparingInt((ScoredDocument scoredDocument) -> scoredDocument.score).reversed()
+            .thenComparingLong(scoredDocument -> scoredDocument.id);
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Set<Long>> ownerItems = new HashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            documents.clear();
+            ownerItems.clear();
+            long afterId = 0L;
+            List<SearchableItem> page;
+            do {
+                page = itemRepository.findAllSearchable(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (SearchableItem item : page) {
+                    put(new Document(item.getId(), item.getName(), item.getDescription(), item.getOwnerId(),
+                            item.getRequestId()));
+                    afterId = item.getId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            log.info("Item search index built, {} items, {} terms", documents.size(), terms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds, replaces or, for an unavailable item, removes the item once the current transaction commits.
+     * The row is read again after the commit, under the write lock: callbacks of concurrent updates run
+     * in no particular order, and a snapshot taken by the transaction could replace a newer one.
+     * Without a transaction the item is taken as it is.
+     */
+    @Override
+    public void index(Item item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replace(item.getId(), Boolean.TRUE.equals(item.getAvailable())
+                    ? new Document(item.getId(), item.getName(), item.getDescription(), item.getOwner().getId(),
+                    item.getItemRequest() != null ? item.getItemRequest().getId() : null)
+                    : null);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(item.getId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> itemIds = ownerItems.get(event.getUserId());
+            if (itemIds != null) {
+                new ArrayList<>(itemIds).forEach(this::remove);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+            itemRepository.findSearchableById(itemId)
+                    .ifPresent(item -> put(new Document(item.getId(), item.getName(), item.getDescription(),
+                            item.getOwnerId(), item.getRequestId())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Long itemId, Document document) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+            if (document != null) {
+                put(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        long offset = (long) from / size * size;
+        return top(text, null, offset + size).stream()
+                .skip(offset)
+                .map(ScoredDocument::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchAfter(String text, ItemCursor after, int size) {
+        ScoredDocument cursor = after != null ? new ScoredDocument(null, after.getRank(), after.getId()) : null;
+        List<ScoredDocument> ranked = top(text, cursor, (long) size + 1);
+        List<ScoredDocument> page = ranked.subList(0, Math.min(size, ranked.size()));
+        String nextCursor = ranked.size() > size
+                ? new ItemCursor(page.get(size - 1).score, page.get(size - 1).id).encode()
+                : null;
+        return new CursorPage<>(page.stream()
+                .map(ScoredDocument::toItemDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Matching items in id order, not ranked: ranking would need every match scored and sorted before
+     * the first one is written. Each item is looked up when the stream reaches it, so one removed
+     * in the meantime is skipped.
+     */
+    @Override
+    public Stream<ItemDto> stream(String text) {
+        String[] queryTerms = tokenize(text);
+        long[] matches;
+        lock.readLock().lock();
+        try {
+            matches = match(queryTerms);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.stream(matches)
+                .mapToObj(this::find)
+                .filter(Objects::nonNull)
+                .map(Document::toItemDto);
+    }
+
+    /**
+     * The {@code limit} best ranked matches after {@code after}, best first. A heap of at most
+     * {@code limit} entries keeps them, so a page costs a pass over the matches, not a sort of all of them.
+     */
+    private List<ScoredDocument> top(String text, ScoredDocument after, long limit) {
+        String[] queryTerms = tokenize(text);
+        lock.readLock().lock();
+        try {
+            long[] matches = match(queryTerms);
+            int capacity = (int) Math.min(limit, matches.length);
+            if (capacity == 0) {
+                return List.of();
+            }
+            // the worst of the kept documents is at the head
+            PriorityQueue<ScoredDocument> best = new PriorityQueue<>(capacity, RANKING.reversed());
+            for (long id : matches) {
+                Document document = documents.get(id);
+                ScoredDocument scored = new ScoredDocument(document, score(document, queryTerms), document.id);
+                if (after != null && RANKING.compare(scored, after) <= 0) {
+                    continue;
+                }
+                if (best.size() < capacity) {
+                    best.add(scored);
+                } else if (RANKING.compare(scored, best.peek()) < 0) {
+                    best.poll();
+                    best.add(scored);
+                }
+            }
+            List<ScoredDocument> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorted ids of the items matching every term; the read lock has to be held.
+     */
+    private long[] match(String[] queryTerms) {
+        if (queryTerms.length == 0) {
+            return new long[0];
+        }
+        long[] matches = null;
+        for (String term : queryTerms) {
+            long[] termMatches = findByPrefix(term);
+            matches = matches == null ? termMatches : intersect(matches, termMatches);
+            if (matches.length == 0) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private Document find(long id) {
+        lock.readLock().lock();
+        try {
+            return documents.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String[] tokenize(String text) {
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private long[] findByPrefix(String prefix) {
+        Collection<Postings> postings = terms.subMap(prefix, prefix + Character.MAX_VALUE).values();
+        if (postings.size() == 1) {
+            return postings.iterator().next().toArray();
+        }
+        return postings.stream()
+                .flatMapToLong(termPostings -> Arrays.stream(termPostings.ids, 0, termPostings.size))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private int score(Document document, String[] queryTerms) {
+        int score = 0;
+        for (String term : queryTerms) {
+            score += Math.max(2 * match(document.nameTerms, term), match(document.descriptionTerms, term));
+        }
+        return score;
+    }
+
+    private int match(String[] documentTerms, String term) {
+        int match = 0;
+        for (String documentTerm : documentTerms) {
+            if (documentTerm.equals(term)) {
+                return 2;
+            }
+            if (documentTerm.startsWith(term)) {
+                match = 1;
+            }
+        }
+        return match;
+    }
+
+    private void put(Document document) {
+        documents.put(document.id, document);
+        ownerItems.computeIfAbsent(document.ownerId, key -> new HashSet<>()).add(document.id);
+        for (String term : document.terms()) {
+            terms.computeIfAbsent(term, key -> new Postings()).add(document.id);
+        }
+    }
+
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        Set<Long> itemIds = ownerItems.get(document.ownerId);
+        itemIds.remove(id);
+        if (itemIds.isEmpty()) {
+            ownerItems.remove(document.ownerId);
+        }
+        for (String term : document.terms()) {
+            Postings postings = terms.get(term);
+            postings.remove(id);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Sorted item ids of one term.
+     */
+    private static class Postings {
+        private long[] ids = new long[2];
+        private int size;
+
+        private void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    private static class Document {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Long ownerId;
+        private final Long requestId;
+        private final String[] nameTerms;
+        private final String[] descriptionTerms;
+
+        private Document(Long id, String name, String description, Long ownerId, Long requestId) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.ownerId = ownerId;
+            this.requestId = requestId;
+            this.nameTerms = tokenize(name);
+            this.descriptionTerms = tokenize(description);
+        }
+
+        private Collection<String> terms() {
+            Set<String> terms = new HashSet<>(Arrays.asList(nameTerms));
+            terms.addAll(Arrays.asList(descriptionTerms));
+            return terms;
+        }
+
+        private ItemDto toItemDto() {
+            return new ItemDto(id, name, description, true, requestId);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ScoredDocument {
+        private final Document document;
+        private final int score;
+        private final Long id;
+
+        private ItemDto toItemDto() {
+            return document.toItemDto();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemCursor;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.utils.CursorPage;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Substring search with {@code lower(...) like}, works on every database.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "jpql")
+public class JpqlItemSearch implements ItemSearchBackend {
+
+    private static final int CLEAR_EVERY = 500;
+
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return itemRepository.search(text, 0L, PageRequest.of(from / size, size)).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchAfter(String text, ItemCursor after, int size) {
+        List<ItemDto> items = itemRepository.search(text, after == null ? 0L : after.getId(),
+                        PageRequest.of(0, size + 1)).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+        return DatabaseSearchPages.toCursorPage(items, size);
+    }
+
+    @Override
+    public Stream<ItemDto> stream(String text) {
+        AtomicInteger read = new AtomicInteger();
+        return itemRepository.streamSearch(text)
+                .map(item -> {
+                    ItemDto itemDto = ItemMapper.toItemDto(item);
+                    // keeps the persistence context from growing with the result
+                    if (read.incrementAndGet() % CLEAR_EVERY == 0) {
+                        entityManager.clear();
+                    }
+                    return itemDto;
+                });
+    }
+}
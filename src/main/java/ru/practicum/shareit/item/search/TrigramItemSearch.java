@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.utils.CursorPage;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The same substring search as {@link JpqlItemSearch}, written against the pg_trgm GIN indexes
+ * created by the PostgreSQL migrations. On other databases it still works, as a scan.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "trigram")
+public class TrigramItemSearch implements ItemSearchBackend {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return itemRepository.searchTrigram(text, 0L, PageRequest.of(from / size, size)).stream()
+                .map(this::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchAfter(String text, ItemCursor after, int size) {
+        List<ItemDto> items = itemRepository.searchTrigram(text, after == null ? 0L : after.getId(),
+                        PageRequest.of(0, size + 1)).stream()
+                .map(this::toItemDto)
+                .collect(Collectors.toList());
+        return DatabaseSearchPages.toCursorPage(items, size);
+    }
+
+    @Override
+    public Stream<ItemDto> stream(String text) {
+        return itemRepository.streamSearchTrigram(text)
+                .map(this::toItemDto);
+    }
+
+    private ItemDto toItemDto(SearchableItem item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), true, item.getRequestId());
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Busy and free intervals of an item within a range, from its WAITING and APPROVED bookings.
+ * Results are cached per item, item version and range. The version moves once a booking of the item
+ * is created or decided and committed, so earlier results are no longer looked up, even one put late by
+ * a read that started before the commit, and age out of the cache.
+ * Versions are drawn from one counter and kept for at most as many items as the cache holds; an item
+ * whose version was dropped gets a new one, never an earlier value.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ItemAvailabilityService {
+
+    private static final List<BookingStatus> BUSY_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final AtomicLong lastVersion = new AtomicLong();
+    private final Cache<Long, Long> versions;
+
+    public ItemAvailabilityService(ItemRepository itemRepository, BookingRepository bookingRepository,
+                                   @Value("${shareit.cache.item-availability.maximum-size:10000}")
+                                   long maximumSize) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ITEM_AVAILABILITY, key = "{#itemId, #root.target.version(#itemId), #from, #to}")
+    public ItemAvailabilityDto findAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability range must end after it starts");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item not found");
+        }
+        List<BookingPeriod> periods = bookingRepository.findAllByItemIdAndStartBeforeAndEndAfterAndStatusInOrderByStartAsc(
+                itemId, to, from, BUSY_STATUSES);
+
+        // periods come ordered by start, so one pass merges overlapping and touching ones
+        List<AvailabilityIntervalDto> busy = new ArrayList<>();
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        AvailabilityIntervalDto current = null;
+        for (BookingPeriod period : periods) {
+            LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+            if (current != null && !start.isAfter(current.getEnd())) {
+                if (end.isAfter(current.getEnd())) {
+                    current.setEnd(end);
+                }
+                continue;
+            }
+            LocalDateTime freeFrom = current == null ? from : current.getEnd();
+            if (start.isAfter(freeFrom)) {
+                free.add(new AvailabilityIntervalDto(freeFrom, start));
+            }
+            current = new AvailabilityIntervalDto(start, end);
+            busy.add(current);
+        }
+        LocalDateTime freeFrom = current == null ? from : current.getEnd();
+        if (freeFrom.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(freeFrom, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+
+    /**
+     * Read into the cache key before the bookings are queried, so a result is never cached under a
+     * version newer than the data it was computed from.
+     */
+    public long version(Long itemId) {
+        return versions.get(itemId, id -> lastVersion.incrementAndGet());
+    }
+
+    /**
+     * Moves the item to a new version once the booking change is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        versions.put(event.getItemId(), lastVersion.incrementAndGet());
+    }
+
+    /**
+     * Bookings of a deleted user and of the user's items are removed by the database cascade without
+     * a booking event. Users are rarely deleted, so every item moves to a new version.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        versions.invalidateAll();
+    }
+}
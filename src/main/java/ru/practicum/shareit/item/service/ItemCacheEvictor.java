@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Items of a deleted user are removed by the database cascade, which the second-level cache does not see.
+ * Users are rarely deleted, so the whole item region is evicted instead of looking up the items first.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        entityManagerFactory.getCache().evict(Item.class);
+    }
+}
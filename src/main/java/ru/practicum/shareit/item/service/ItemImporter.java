@@ -0,0 +1,181 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.ItemImportSummary;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports items from a JSON array or from whitespace separated JSON values (NDJSON) while the body is read.
+ * Rows are validated one by one and inserted in chunks, each chunk in its own transaction, so only one
+ * chunk is held in memory. A chunk that fails to insert rejects its rows; chunks committed before stay.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImporter {
+
+    private final UserService userService;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchBackend itemSearchBackend;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.items.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Passes the result of every row to {@code results} once its chunk is committed or rejected, in row order.
+     */
+    public ItemImportSummary importItems(Long userId, InputStream body, Consumer<ItemImportResult> results)
+            throws IOException {
+        User owner = UserMapper.toUser(userService.findById(userId));
+        Counts counts = new Counts();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long row = 0;
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                JsonNode node = parser.readValueAsTree();
+                chunk.add(parse(row++, node));
+                if (chunk.size() == chunkSize) {
+                    insert(owner, chunk, results, counts);
+                    chunk.clear();
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            chunk.add(new Row(row, null, List.of("Malformed JSON: " + e.getOriginalMessage())));
+        }
+        insert(owner, chunk, results, counts);
+        return new ItemImportSummary(counts.created, counts.failed);
+    }
+
+    private Row parse(long row, JsonNode node) {
+        ItemDto itemDto;
+        try {
+            itemDto = objectMapper.treeToValue(node, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            return new Row(row, null, List.of(e.getOriginalMessage()));
+        }
+        if (itemDto == null) {
+            return new Row(row, null, List.of("Item must be an object"));
+        }
+        List<String> errors = validator.validate(itemDto).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+        return new Row(row, errors.isEmpty() ? itemDto : null, errors.isEmpty() ? null : errors);
+    }
+
+    private void insert(User owner, List<Row> chunk, Consumer<ItemImportResult> results, Counts counts) {
+        List<Row> valid = chunk.stream()
+                .filter(row -> row.itemDto != null)
+                .collect(Collectors.toList());
+        try {
+            if (!valid.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Map<Long, ItemRequest> requests = findRequests(valid);
+                    List<Item> items = new ArrayList<>(valid.size());
+                    for (Row row : valid) {
+                        Item item = ItemMapper.toItem(row.itemDto);
+                        item.setOwner(owner);
+                        item.setItemRequest(row.itemDto.getRequestId() != null
+                                ? requests.get(row.itemDto.getRequestId())
+                                : null);
+                        row.item = item;
+                        items.add(item);
+                    }
+                    itemRepository.insertAll(items);
+                    items.forEach(itemSearchBackend::index);
+                });
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Item import chunk of {} rows rejected", valid.size(), e);
+            valid.forEach(row -> {
+                row.item = null;
+                row.errors = List.of("Not saved: " + e.getMostSpecificCause().getMessage());
+            });
+        }
+        for (Row row : chunk) {
+            if (row.item != null) {
+                counts.created++;
+                results.accept(new ItemImportResult(row.row, row.item.getId(), null));
+            } else {
+                counts.failed++;
+                results.accept(new ItemImportResult(row.row, null, row.errors));
+            }
+        }
+    }
+
+    /**
+     * Like {@link ItemService#add}, an unknown request id leaves the item without a request.
+     */
+    private Map<Long, ItemRequest> findRequests(List<Row> rows) {
+        List<Long> requestIds = rows.stream()
+                .map(row -> row.itemDto.getRequestId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        if (!requestIds.isEmpty()) {
+            itemRequestRepository.findAllById(requestIds)
+                    .forEach(request -> requests.put(request.getId(), request));
+        }
+        return requests;
+    }
+
+    private static class Row {
+        private final long row;
+        private final ItemDto itemDto;
+        private List<String> errors;
+        private Item item;
+
+        private Row(long row, ItemDto itemDto, List<String> errors) {
+            this.row = row;
+            this.itemDto = itemDto;
+            this.errors = errors;
+        }
+    }
+
+    private static class Counts {
+        private long created;
+        private long failed;
+    }
+}
@@ -1,18 +1,20 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBooking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
@@ -20,14 +22,19 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.Batches;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
@@ -41,6 +48,7 @@ public class ItemService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchBackend itemSearchBackend;
 
     @Transactional
     public ItemOutDto add(Long userId, ItemDto itemDto) {
@@ -50,7 +58,9 @@ public class ItemService {
         if (itemDto.getRequestId() != null) {
             item.setItemRequest(itemRequestRepository.findById(itemDto.getRequestId()).orElse(null));
         }
-        return ItemMapper.toItemOutDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchBackend.index(savedItem);
+        return ItemMapper.toItemOutDto(savedItem);
     }
 
     @Transactional
@@ -58,7 +68,7 @@ public class ItemService {
         UserDto userDto = userService.findById(userId);
         Optional<Item> item = itemRepository.findById(itemId);
         if (item.isPresent()) {
-            if (!item.get().getOwner().equals(UserMapper.toUser(userDto))) {
+            if (!item.get().getOwner().getId().equals(userDto.getId())) {
                 throw new NotFoundException("User " + userId + " is not owner to item with id " + itemId);
             }
 
@@ -79,7 +89,9 @@ public class ItemService {
             newItem.setItemRequest(savedItem.getItemRequest());
             newItem.setOwner(savedItem.getOwner());
 
-            return ItemMapper.toItemOutDto(itemRepository.save(newItem));
+            Item updatedItem = itemRepository.save(newItem);
+            itemSearchBackend.index(updatedItem);
+            return ItemMapper.toItemOutDto(updatedItem);
         } else {
             throw new NotFoundException("Item not found");
         }
@@ -103,52 +115,65 @@ public class ItemService {
         if (!item.get().getOwner().getId().equals(userId)) {
             return itemOutDto;
         }
-        List<Booking> bookings = bookingRepository.findAllByItemAndStatusOrderByStartAsc(item.get(), BookingStatus.APPROVED);
-        List<BookingOutDto> bookingOutDto = bookings.stream()
-                .map(BookingMapper::toBookingOut)
-                .collect(toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, BookingShortDto> nextBookings = new HashMap<>();
+        findLastAndNextBookings(List.of(itemId), now, lastBookings, nextBookings);
 
-        itemOutDto.setLastBooking(getLastBooking(bookingOutDto, LocalDateTime.now()));
-        itemOutDto.setNextBooking(getNextBooking(bookingOutDto, LocalDateTime.now()));
+        itemOutDto.setLastBooking(lastBookings.get(itemId));
+        itemOutDto.setNextBooking(nextBookings.get(itemId));
 
         return itemOutDto;
     }
 
-    public List<ItemOutDto> findAll(Long userId) {
-        UserDto userDto = userService.findById(userId);
-        List<Item> itemList = itemRepository.findAllByOwnerIdOrderById(userId);
-        List<Long> itemsId = itemList.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
+    public List<ItemOutDto> findAll(Long userId, Integer from, Integer size) {
+        userService.findById(userId);
+        int pageSize = pageSize(size);
+        List<Item> items = itemRepository.findAllByOwnerIdOrderById(userId,
+                PageRequest.of((from == null ? 0 : from) / pageSize, pageSize));
+        return toItemOutDtos(items);
+    }
 
-        Map<Long, List<CommentOutDto>> comments = commentRepository.findAllByItemIdIn(itemsId)
-                .stream()
-                .map(CommentMapper::toCommentOutDto)
-                .collect(groupingBy(CommentOutDto::getItemId, toList()));
+    public CursorPage<ItemOutDto> findAllAfter(Long userId, String after, Integer size) {
+        userService.findById(userId);
+        int pageSize = pageSize(size);
+        ItemCursor cursor = ItemCursor.decode(after);
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(userId,
+                cursor == null ? 0L : cursor.getId(), PageRequest.of(0, pageSize + 1));
+        if (items.size() <= pageSize) {
+            return new CursorPage<>(toItemOutDtos(items), null);
+        }
+        List<Item> page = items.subList(0, pageSize);
+        return new CursorPage<>(toItemOutDtos(page), new ItemCursor(0, page.get(pageSize - 1).getId()).encode());
+    }
 
-        Map<Long, List<BookingOutDto>> bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(itemList, BookingStatus.APPROVED)
-                .stream()
-                .map(BookingMapper::toBookingOut)
-                .collect(groupingBy(BookingOutDto::getItemId, toList()));
+    public List<ItemDto> search(Long userId, String searchText, Integer from, Integer size) {
+        userService.findById(userId);
+        if (searchText.isBlank()) {
+            return Collections.emptyList();
+        }
+        return itemSearchBackend.search(searchText, from == null ? 0 : from, pageSize(size));
+    }
 
-        return itemList.stream()
-                .map(item -> ItemMapper.toItemOutDto(item,
-                        getLastBooking(bookings.get(item.getId()), LocalDateTime.now()),
-                        comments.get(item.getId()),
-                        getNextBooking(bookings.get(item.getId()), LocalDateTime.now())
-                ))
-                .collect(toList());
+    public CursorPage<ItemDto> searchAfter(Long userId, String searchText, String after, Integer size) {
+        userService.findById(userId);
+        if (searchText.isBlank()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        return itemSearchBackend.searchAfter(searchText, ItemCursor.decode(after), pageSize(size));
     }
 
-    public List<ItemDto> search(Long userId, String searchText) {
-        UserDto userDto = userService.findById(userId);
+    /**
+     * Passes every result to {@code consumer} while the results are read, without collecting them.
+     */
+    public void streamSearch(Long userId, String searchText, Consumer<ItemDto> consumer) {
+        userService.findById(userId);
         if (searchText.isBlank()) {
-            return Collections.emptyList();
+            return;
+        }
+        try (Stream<ItemDto> items = itemSearchBackend.stream(searchText)) {
+            items.forEach(consumer);
         }
-        List<Item> items = itemRepository.search(searchText);
-        return items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -170,29 +195,44 @@ public class ItemService {
         return CommentMapper.toCommentOutDto(commentRepository.save(CommentMapper.toComment(commentDto, item, user)));
     }
 
-    private BookingOutDto getLastBooking(List<BookingOutDto> bookings, LocalDateTime time) {
+    private List<ItemOutDto> toItemOutDtos(List<Item> items) {
+        List<Long> itemsId = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
 
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
+        Map<Long, List<CommentOutDto>> comments = new HashMap<>();
+        for (List<Long> batch : Batches.partition(itemsId, Batches.IN_CLAUSE_SIZE)) {
+            comments.putAll(commentRepository.findAllByItemIdIn(batch)
+                    .stream()
+                    .map(CommentMapper::toCommentOutDto)
+                    .collect(groupingBy(CommentOutDto::getItemId, toList())));
         }
 
-        return bookings
-                .stream()
-                .filter(bookingDTO -> !bookingDTO.getStart().isAfter(time))
-                .reduce((booking1, booking2) -> booking1.getStart().isAfter(booking2.getStart()) ? booking1 : booking2)
-                .orElse(null);
+        Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, BookingShortDto> nextBookings = new HashMap<>();
+        findLastAndNextBookings(itemsId, LocalDateTime.now(), lastBookings, nextBookings);
+
+        return items.stream()
+                .map(item -> ItemMapper.toItemOutDto(item,
+                        lastBookings.get(item.getId()),
+                        comments.get(item.getId()),
+                        nextBookings.get(item.getId())
+                ))
+                .collect(toList());
     }
 
-    private BookingOutDto getNextBooking(List<BookingOutDto> bookings, LocalDateTime time) {
+    private int pageSize(Integer size) {
+        return (size == null || size < 1) ? 10 : size;
+    }
 
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
+    private void findLastAndNextBookings(List<Long> itemIds, LocalDateTime now,
+                                         Map<Long, BookingShortDto> lastBookings,
+                                         Map<Long, BookingShortDto> nextBookings) {
+        for (List<Long> batch : Batches.partition(itemIds, Batches.IN_CLAUSE_SIZE)) {
+            for (ItemBooking booking : bookingRepository.findLastAndNextByItemIdIn(batch, now)) {
+                Map<Long, BookingShortDto> bookings = booking.getStart().isAfter(now) ? nextBookings : lastBookings;
+                bookings.put(booking.getItemId(), BookingMapper.toBookingShortDto(booking));
+            }
         }
-
-        return bookings
-                .stream()
-                .filter(bookingDTO -> bookingDTO.getStart().isAfter(time))
-                .findFirst()
-                .orElse(null);
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,75 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.utils.BulkInsertRepository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, BulkInsertRepository<Item> {
+    String SEARCH = "select i " +
+            "from Item as i " +
+            "where i.available = true and " +
+            "(lower(i.name) like lower(concat('%', :text, '%')) or " +
+            "lower(i.description) like lower(concat('%', :text, '%')))";
+
+    /**
+     * Matches the expressions of the trigram indexes on PostgreSQL, see db/vendor/postgresql.
+     */
+    String SEARCH_TRIGRAM = "SELECT i.id, i.name, i.description, i.owner_id AS ownerId, i.request_id AS requestId " +
+            "FROM items AS i " +
+            "WHERE i.available = true " +
+            "AND (lower(i.name) LIKE '%' || lower(:text) || '%' " +
+            "OR lower(i.description) LIKE '%' || lower(:text) || '%')";
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerIdOrderById(Long ownerId);
 
+    List<Item> findAllByOwnerIdOrderById(Long ownerId, Pageable pageable);
+
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderById(Long ownerId, Long afterId, Pageable pageable);
+
     @Query("select i " +
             "from Item as i " +
-            "where i.available = true and " +
-            "(lower(i.name) like lower(concat('%', ?1, '%')) or " +
-            "lower(i.description) like lower(concat('%',?1,'%')))")
-    List<Item> search(String text);
+            "where i.itemRequest.id in :requestIds " +
+            "order by i.id")
+    List<Item> findAllByItemRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query(SEARCH + " and i.id > :afterId order by i.id")
+    List<Item> search(@Param("text") String text, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SEARCH + " order by i.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Item> streamSearch(@Param("text") String text);
+
+    @Query(value = SEARCH_TRIGRAM + " AND i.id > :afterId ORDER BY i.id", nativeQuery = true)
+    List<SearchableItem> searchTrigram(@Param("text") String text, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    @Query(value = SEARCH_TRIGRAM + " ORDER BY i.id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<SearchableItem> streamSearchTrigram(@Param("text") String text);
+
+    @Query("select i.id as id, i.name as name, i.description as description, " +
+            "i.owner.id as ownerId, r.id as requestId " +
+            "from Item as i " +
+            "left join i.itemRequest as r " +
+            "where i.available = true and i.id > ?1 " +
+            "order by i.id")
+    List<SearchableItem> findAllSearchable(Long afterId, Pageable pageable);
+
+    @Query("select i.id as id, i.name as name, i.description as description, " +
+            "i.owner.id as ownerId, r.id as requestId " +
+            "from Item as i " +
+            "left join i.itemRequest as r " +
+            "where i.available = true and i.id = ?1")
+    Optional<SearchableItem> findSearchableById(Long id);
 }
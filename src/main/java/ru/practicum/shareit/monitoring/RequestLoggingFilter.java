@@ -0,0 +1,70 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Tags the log lines of every request with a request id, taken from {@value #REQUEST_ID_HEADER} when the
+ * caller sends a well-formed one, and returns it in the same header. Warns once the request is done if it
+ * prepared more statements than {@code shareit.requests.slow.statements} or took longer than
+ * {@code shareit.requests.slow.duration}, so N+1 regressions show up in the logs.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID = "requestId";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Value("${shareit.requests.slow.statements:20}")
+    private int maxStatements;
+
+    @Value("${shareit.requests.slow.duration:1s}")
+    private Duration maxDuration;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(REQUEST_ID, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        RequestStatistics statistics = RequestStatistics.start();
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long millis = (System.nanoTime() - started) / 1_000_000;
+            if (statistics.getStatements() > maxStatements || millis > maxDuration.toMillis()) {
+                log.warn("Slow request method={} uri={} status={} durationMs={} statements={} jdbcMs={}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), millis,
+                        statistics.getStatements(), statistics.getJdbcMillis());
+            } else {
+                log.debug("Request method={} uri={} status={} durationMs={} statements={} jdbcMs={}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), millis,
+                        statistics.getStatements(), statistics.getJdbcMillis());
+            }
+            RequestStatistics.stop();
+            MDC.remove(REQUEST_ID);
+        }
+    }
+}
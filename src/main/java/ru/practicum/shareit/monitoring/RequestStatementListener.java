@@ -0,0 +1,49 @@
+package ru.practicum.shareit.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the statements a Hibernate session prepares and the time it waits on JDBC executions to the
+ * {@link RequestStatistics} of the current request. Hibernate creates one per session, as configured by
+ * {@code hibernate.session.events.auto}. Work on the raw connection, like {@code Session#doReturningWork},
+ * bypasses it.
+ */
+public class RequestStatementListener extends BaseSessionEventListener {
+
+    private long executionStarted;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.statementPrepared();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executionEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executionEnded();
+    }
+
+    private void executionEnded() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.jdbcTime(System.nanoTime() - executionStarted);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.Getter;
+
+/**
+ * Statements prepared and JDBC time spent by the HTTP request running on the current thread.
+ * Work done on other threads, such as transactional event listeners run asynchronously, is not counted.
+ */
+@Getter
+public class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+
+    static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Statistics of the current request, or {@code null} outside of a request.
+     */
+    public static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void jdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public long getJdbcMillis() {
+        return jdbcNanos / 1_000_000;
+    }
+}
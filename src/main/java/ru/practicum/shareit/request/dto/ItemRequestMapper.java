@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.dto;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.ArrayList;
@@ -26,10 +27,14 @@ public class ItemRequestMapper {
     }
 
     public ItemRequestOutDto toItemRequestOutDto(ItemRequest itemRequest) {
+        return toItemRequestOutDto(itemRequest, itemRequest.getItems());
+    }
+
+    public ItemRequestOutDto toItemRequestOutDto(ItemRequest itemRequest, List<Item> items) {
         List<ItemOutDto> itemsOutDto = new ArrayList<>();
 
-        if (!Objects.isNull(itemRequest.getItems())) {
-            itemsOutDto = itemRequest.getItems().stream()
+        if (!Objects.isNull(items)) {
+            itemsOutDto = items.stream()
                     .map(ItemMapper::toItemOutDto)
                     .collect(Collectors.toList());
         }
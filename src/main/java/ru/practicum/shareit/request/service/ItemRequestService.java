@@ -6,6 +6,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
@@ -14,8 +16,11 @@ import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.Batches;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -25,6 +30,7 @@ import java.util.stream.Collectors;
 public class ItemRequestService {
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
 
     @Transactional
     public ItemRequestOutDto add(Long userId, ItemRequestDto itemRequestDto) {
@@ -37,17 +43,13 @@ public class ItemRequestService {
     public List<ItemRequestOutDto> getUserRequests(Long userId) {
         User user = UserMapper.toUser(userService.findById(userId));
         List<ItemRequest> itemRequestList = itemRequestRepository.findAllByRequestorId(userId);
-        return itemRequestList.stream()
-                .map(ItemRequestMapper::toItemRequestOutDto)
-                .collect(Collectors.toList());
+        return toItemRequestOutDtos(itemRequestList);
     }
 
     public List<ItemRequestOutDto> getAllRequests(Long userId, Pageable pageable) {
         User user = UserMapper.toUser(userService.findById(userId));
         Page<ItemRequest> itemRequestList = itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(userId, pageable);
-        return itemRequestList.stream()
-                .map(ItemRequestMapper::toItemRequestOutDto)
-                .collect(Collectors.toList());
+        return toItemRequestOutDtos(itemRequestList.getContent());
     }
 
     public ItemRequestOutDto getRequestById(Long userId, Long requestId) {
@@ -58,4 +60,24 @@ public class ItemRequestService {
         }
         return ItemRequestMapper.toItemRequestOutDto(requestById.get());
     }
+
+    /**
+     * Loads the items of all requests with one query per IN batch instead of initializing
+     * every {@link ItemRequest#getItems()} collection on its own.
+     */
+    private List<ItemRequestOutDto> toItemRequestOutDtos(List<ItemRequest> itemRequests) {
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = new HashMap<>();
+        for (List<Long> batch : Batches.partition(requestIds, Batches.IN_CLAUSE_SIZE)) {
+            items.putAll(itemRepository.findAllByItemRequestIdIn(batch)
+                    .stream()
+                    .collect(Collectors.groupingBy(item -> item.getItemRequest().getId())));
+        }
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestOutDto(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
 }
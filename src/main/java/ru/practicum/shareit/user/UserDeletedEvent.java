@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Published when a user is deleted. Items and bookings of the user are removed by the database cascade.
+ */
+@Value
+public class UserDeletedEvent {
+    Long userId;
+}
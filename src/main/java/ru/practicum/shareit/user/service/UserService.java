@@ -1,10 +1,15 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.storage.UserRepository;
@@ -18,6 +23,7 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserDto add(UserDto userDto) {
@@ -26,6 +32,7 @@ public class UserService {
         return UserMapper.toUserDto(userRepository.save(user));
     }
 
+    @Cacheable(CacheConfig.USERS)
     public UserDto findById(Long id) {
 
         User user = userRepository.findById(id)
@@ -40,6 +47,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDto update(Long id, UserDto userDto) {
 
         User user = userRepository.findById(id)
@@ -56,7 +64,9 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(CacheConfig.USERS)
     public void delete(Long id) {
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.BulkInsertRepository;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, BulkInsertRepository<User> {
 }
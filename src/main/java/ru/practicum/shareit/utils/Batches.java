@@ -0,0 +1,23 @@
+package ru.practicum.shareit.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class Batches {
+
+    /**
+     * Upper bound of values bound to one {@code IN} clause.
+     */
+    public static final int IN_CLAUSE_SIZE = 500;
+
+    public <T> List<List<T>> partition(List<T> values, int size) {
+        List<List<T>> batches = new ArrayList<>((values.size() + size - 1) / size);
+        for (int from = 0; from < values.size(); from += size) {
+            batches.add(values.subList(from, Math.min(values.size(), from + size)));
+        }
+        return batches;
+    }
+}
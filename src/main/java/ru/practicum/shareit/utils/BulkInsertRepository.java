@@ -0,0 +1,13 @@
+package ru.practicum.shareit.utils;
+
+/**
+ * Repository fragment for bulk loads that sends inserts in JDBC batches.
+ */
+public interface BulkInsertRepository<T> {
+
+    /**
+     * Persists the entities in chunks of {@code hibernate.jdbc.batch_size}, flushing and clearing the
+     * persistence context after every chunk. Entities loaded earlier in the transaction are detached.
+     */
+    void insertAll(Iterable<T> entities);
+}
@@ -2,4 +2,5 @@ package ru.practicum.shareit.utils;
 
 public final class Constants {
     public static final String USER_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 }
@@ -1,5 +1,3 @@
-drop TABLE IF EXISTS comments, requests, bookings, users, items;
-
 create table if not exists users (
     id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(100) NOT NULL,
@@ -8,13 +6,6 @@ create table if not exists users (
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
---CREATE TABLE IF NOT EXISTS users
---(
---    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
---    name  VARCHAR(100) NOT NULL,
---    email VARCHAR(100) NOT NULL,
---    CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
---);
 create table if not exists requests
 (
     id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -54,4 +45,4 @@ create table if not exists comments (
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
 
     CONSTRAINT pk_comment PRIMARY KEY (comment_id)
-);
\ No newline at end of file
+);
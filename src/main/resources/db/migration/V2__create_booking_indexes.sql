@@ -0,0 +1,8 @@
+-- /bookings?state=...: booker_id filter, newest first, id as the keyset tie-breaker
+create index if not exists ix_bookings_booker_start on bookings (booker_id, start_time desc, id desc);
+
+-- last/next booking, overlap checks and owner listings joined through items
+create index if not exists ix_bookings_item_status_start on bookings (item_id, status, start_time);
+
+-- /bookings/owner and /items filter items by owner
+create index if not exists ix_items_owner on items (owner_id);
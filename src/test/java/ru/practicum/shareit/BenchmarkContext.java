@@ -0,0 +1,26 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * Starts the application inside a JMH fork: the test profile's H2 database, no web server.
+ * The fork does not inherit the profile Surefire sets, so it is given here. The properties are passed
+ * as command line arguments: builder properties are only defaults, and the profile's datasource would win.
+ */
+@UtilityClass
+public class BenchmarkContext {
+
+    public ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run(Arrays.stream(properties)
+                        .map(property -> "--" + property)
+                        .toArray(String[]::new));
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.config.EntityCacheConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class EntityCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    private UserDto owner;
+
+    private ItemOutDto item;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        // rows are deleted behind the entity manager's and the users cache's back
+        entityManagerFactory.getCache().evictAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        owner = userService.add(UserDto.builder()
+                .name("owner")
+                .email("owner@email.ru")
+                .build());
+        item = itemService.add(owner.getId(), new ItemDto(null, "item", "desc", true, null));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    void secondLookupIsServedFromRegion() {
+        itemRepository.findById(item.getId());
+        userRepository.findById(owner.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        itemRepository.findById(item.getId());
+        userRepository.findById(owner.getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(EntityCacheConfig.ITEM_REGION).getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(EntityCacheConfig.USER_REGION).getHitCount());
+        assertEquals(0.5, hitRatio(EntityCacheConfig.ITEM_REGION));
+    }
+
+    @Test
+    void updateThroughServiceRefreshesRegion() {
+        itemRepository.findById(item.getId());
+
+        itemService.update(owner.getId(), item.getId(), new ItemDto(null, "updated", null, null, null));
+        userService.update(owner.getId(), UserDto.builder().name("renamed").build());
+
+        assertEquals("updated", itemRepository.findById(item.getId()).orElseThrow().getName());
+        assertEquals("renamed", userRepository.findById(owner.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deletingOwnerEvictsCascadedItems() {
+        itemRepository.findById(item.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+
+        userService.delete(owner.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        assertFalse(itemRepository.findById(item.getId()).isPresent());
+    }
+
+    private double hitRatio(String region) {
+        return meterRegistry.get("hibernate.cache.region.hit.ratio")
+                .tag("region", region)
+                .gauge()
+                .value();
+    }
+}
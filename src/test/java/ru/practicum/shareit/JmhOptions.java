@@ -0,0 +1,35 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Options shared by the JMH benchmarks: one fork, and the results written as JSON to
+ * {@code target/jmh/<benchmark>.json}, or to the directory given by {@code -Djmh.results},
+ * so that runs of two commits can be compared with any JSON diff or the JMH visualizer.
+ */
+@UtilityClass
+public class JmhOptions {
+
+    public ChainedOptionsBuilder of(Class<?> benchmark) {
+        Path results = Paths.get(System.getProperty("jmh.results", "target/jmh"));
+        try {
+            Files.createDirectories(results);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new OptionsBuilder()
+                .include(benchmark.getName())
+                .forks(1)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.resolve(benchmark.getSimpleName() + ".json").toString());
+    }
+}
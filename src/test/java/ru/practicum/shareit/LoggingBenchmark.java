@@ -0,0 +1,120 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.utils.Constants;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of {@code GET /bookings} over HTTP from 8 threads, with the default logging and with the
+ * verbose dev profile: every statement printed, transaction tracing and a synchronous console.
+ * Console output goes to a temporary file, as it would to a container log. Each profile runs in its own fork.
+ * Run with {@code mvn test -Pbenchmark -Dtest=LoggingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class LoggingBenchmark {
+
+    private static final int BOOKINGS = 10;
+
+    /**
+     * {@code ci} runs on H2 with the default logging, {@code dev} adds the verbose output.
+     */
+    @Param({"ci", "ci,dev"})
+    public String profiles;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+    private PrintStream console;
+    private Path log;
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(JmhOptions.of(LoggingBenchmark.class).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        console = System.out;
+        log = Files.createTempFile("logging-benchmark", ".log");
+        System.setOut(new PrintStream(new FileOutputStream(log.toFile()), true));
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles(profiles.split(","))
+                .properties("server.port=0")
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings?state=ALL"))
+                .header(Constants.USER_HEADER, "2")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(console);
+        System.out.println("console output of " + profiles + ": " + Files.size(log) / 1024 + " KB");
+        Files.delete(log);
+    }
+
+    @Benchmark
+    public int bookingsOfBooker() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /bookings returned " + response.statusCode());
+        }
+        return response.body().length();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@email.ru')");
+        jdbcTemplate.update("insert into users (id, name, email) values (2, 'booker', 'booker@email.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) "
+                + "values (1, 'item', 'desc', true, 1)");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            jdbcTemplate.update("insert into bookings (start_time, end_time, item_id, booker_id, status) "
+                    + "values (?, ?, 1, 2, 'APPROVED')", Timestamp.valueOf(start.plusDays(i)),
+                    Timestamp.valueOf(start.plusDays(i).plusHours(1)));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a page of 1 000 bookings and items the way the controllers do, so a change to a mapper
+ * shows up as a change of the time per page. Run with {@code mvn test -Pbenchmark -Dtest=MapperBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    private static final int PAGE = 1_000;
+
+    private final List<Booking> bookings = new ArrayList<>(PAGE);
+    private final List<BookingView> views = new ArrayList<>(PAGE);
+    private final List<Item> items = new ArrayList<>(PAGE);
+    private final Set<BookingField> fields = EnumSet.of(BookingField.ID, BookingField.START, BookingField.ITEM);
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(JmhOptions.of(MapperBenchmark.class).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User owner = User.builder().id(1L).name("owner").email("owner@email.ru").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@email.ru").build();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (long id = 1; id <= PAGE; id++) {
+            Item item = Item.builder()
+                    .id(id)
+                    .name("item " + id)
+                    .description("description " + id)
+                    .available(true)
+                    .owner(owner)
+                    .itemRequest(id % 2 == 0 ? ItemRequest.builder().id(id).build() : null)
+                    .build();
+            Booking booking = new Booking(item, start.plusHours(id), start.plusHours(id + 1), booker,
+                    BookingStatus.APPROVED);
+            booking.setId(id);
+            items.add(item);
+            bookings.add(booking);
+            views.add(new BookingView(id, booking.getStart(), booking.getEnd(), booking.getStatus(), id,
+                    item.getName(), booker.getId()));
+        }
+    }
+
+    @Benchmark
+    public void bookingOut(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toBookingOut(booking));
+        }
+    }
+
+    @Benchmark
+    public void bookingView(Blackhole blackhole) {
+        for (BookingView view : views) {
+            blackhole.consume(BookingMapper.toBookingViewDto(view, fields));
+        }
+    }
+
+    @Benchmark
+    public void itemOut(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.toItemOutDto(item));
+        }
+    }
+
+    @Benchmark
+    public void item(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.toItemDto(item));
+        }
+    }
+}
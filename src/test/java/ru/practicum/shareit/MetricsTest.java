@@ -0,0 +1,55 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Prometheus scrape endpoint serves request and repository latency histograms, pool, GC and error metrics.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void scrapeHasHistogramsPerRouteStatusAndRepositoryMethod() throws Exception {
+        mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"user\", \"email\": \"user@email.ru\"}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users/999"))
+                .andExpect(status().isNotFound());
+
+        String scrape = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(scrape)
+                .containsPattern("http_server_requests_seconds_bucket\\{application=\"shareit\",.*"
+                        + "method=\"POST\",outcome=\"SUCCESS\",status=\"200\",uri=\"/users\",le=\"[0-9.]+\"")
+                .containsPattern("http_server_requests_seconds_bucket\\{.*"
+                        + "status=\"404\",uri=\"/users/\\{userId}\",le=")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{.*"
+                        + "method=\"save\",repository=\"UserRepository\",state=\"SUCCESS\",le=")
+                .containsPattern("hikaricp_connections_active\\{.*pool=\"")
+                .contains("jvm_gc_memory_allocated_bytes_total")
+                .containsPattern("shareit_errors_total\\{.*exception=\"NotFoundException\",status=\"404\",} 1.0");
+    }
+}
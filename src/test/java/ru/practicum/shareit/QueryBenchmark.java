@@ -0,0 +1,163 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBooking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the service and repository queries behind the owner's item list, item search and booking lists
+ * against an H2 database seeded with 10 owners, 1 000 items and 100 000 bookings.
+ * {@link #lastAndNextReduction} is the way last and next bookings were found before the window query of
+ * {@link BookingRepository#findLastAndNextByItemIdIn}: every approved booking of the page's items loaded
+ * and reduced in Java. Run with {@code mvn test -Pbenchmark -Dtest=QueryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryBenchmark {
+
+    private static final int OWNERS = 10;
+    private static final int ITEMS_PER_OWNER = 100;
+    private static final int BOOKINGS_PER_ITEM = 100;
+    private static final int PAGE = 20;
+    private static final String[] NAMES = {"drill", "saw", "ladder", "tent", "kayak"};
+    private static final long OWNER_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Item> items;
+    private List<Long> itemIds;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(JmhOptions.of(QueryBenchmark.class).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        seed(context.getBean(JdbcTemplate.class));
+        items = itemRepository.findAllByOwnerIdOrderById(OWNER_ID, PageRequest.of(0, PAGE));
+        itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemOutDto> itemsOfOwner() {
+        return itemService.findAll(OWNER_ID, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return itemRepository.search("saw", 0L, PageRequest.of(0, PAGE));
+    }
+
+    @Benchmark
+    public List<BookingOutDto> bookingsOfOwner() {
+        return transactionTemplate.execute(status -> bookingRepository
+                .findAllByRole(BookingRole.OWNER, OWNER_ID, BookingState.ALL, now, PageRequest.of(0, PAGE))
+                .map(BookingMapper::toBookingOut)
+                .getContent());
+    }
+
+    @Benchmark
+    public List<ItemBooking> lastAndNextQuery() {
+        return bookingRepository.findLastAndNextByItemIdIn(itemIds, now);
+    }
+
+    @Benchmark
+    public Map<Long, Long[]> lastAndNextReduction() {
+        Map<Long, Long[]> lastAndNext = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllByItemInAndStatusOrderByStartAsc(items,
+                BookingStatus.APPROVED)) {
+            Long[] ids = lastAndNext.computeIfAbsent(booking.getItem().getId(), id -> new Long[2]);
+            if (!booking.getStart().isAfter(now)) {
+                ids[0] = booking.getId();
+            } else if (ids[1] == null) {
+                ids[1] = booking.getId();
+            }
+        }
+        return lastAndNext;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= OWNERS + 1; id++) {
+            users.add(new Object[]{id, "user " + id, "user" + id + "@email.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        long bookerId = OWNERS + 1;
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= OWNERS * ITEMS_PER_OWNER; id++) {
+            String name = NAMES[(int) (id % NAMES.length)];
+            items.add(new Object[]{id, name + " " + id, "a " + name, (id - 1) / ITEMS_PER_OWNER + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id) "
+                + "values (?, ?, ?, true, ?)", items);
+        for (long item = 1; item <= OWNERS * ITEMS_PER_OWNER; item++) {
+            List<Object[]> bookings = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                // most of the history is in the past, the rest is booked ahead
+                LocalDateTime start = now.minusDays(BOOKINGS_PER_ITEM * 9L / 10).plusDays(i);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), item,
+                        bookerId, i % 10 == 0 ? "REJECTED" : "APPROVED"});
+            }
+            jdbcTemplate.batchUpdate("insert into bookings (start_time, end_time, item_id, booker_id, status) "
+                    + "values (?, ?, ?, ?, ?)", bookings);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.utils.Constants;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budget of every read endpoint, measured with Hibernate statistics.
+ * The data has several items, bookers, comment authors and requests, so a lazy association
+ * initialized per row shows up as a budget overrun. Every endpoint is called once before
+ * measuring, so the current user is already in the users cache.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class QueryBudgetTest {
+
+    private static final long OWNER_ID = 1L;
+    private static final int ITEMS = 5;
+    private static final int BOOKERS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        // rows are replaced behind the entity manager's back
+        entityManagerFactory.getCache().evictAll();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> requests = new ArrayList<>();
+        for (long id = OWNER_ID; id <= OWNER_ID + BOOKERS; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@email.ru"});
+            requests.add(new Object[]{id, "request" + id, id, Timestamp.valueOf(LocalDateTime.now())});
+        }
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long bookingId = 1;
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            items.add(new Object[]{itemId, OWNER_ID, itemId % BOOKERS + 2});
+            for (long bookerId = 2; bookerId <= OWNER_ID + BOOKERS; bookerId++) {
+                LocalDateTime start = now.plusDays(bookingId - 10);
+                bookings.add(new Object[]{bookingId++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                        itemId, bookerId});
+                comments.add(new Object[]{"comment", itemId, bookerId});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requestor_id, created) "
+                + "values (?, ?, ?, ?)", requests);
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id, request_id) "
+                + "values (?, 'item', 'desc', true, ?, ?)", items);
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_time, end_time, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?, 'APPROVED')", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (text, item_id, author_id, created) "
+                + "values (?, ?, ?, current_timestamp)", comments);
+    }
+
+    @ParameterizedTest(name = "{0} as {1}: {2}")
+    @CsvSource({
+            "/bookings/1, 1, 1",
+            "/bookings?state=ALL, 2, 1",
+            "/bookings?state=ALL&after=, 2, 1",
+            "/bookings/owner?state=ALL, 1, 1",
+            "/bookings/owner?state=PAST, 1, 1",
+            "'/bookings?fields=id,item,booker', 2, 1",
+            "'/bookings/owner?fields=id,status&after=', 1, 1",
+            "/items/1, 1, 3",
+            "/items/1, 2, 2",
+            "/items, 1, 3",
+            "/requests, 2, 2",
+            "/requests/all, 1, 3",
+            "/requests/2, 1, 2"
+    })
+    void endpointStaysWithinBudget(String uri, long userId, long budget) throws Exception {
+        mvc.perform(get(uri).header(Constants.USER_HEADER, userId))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mvc.perform(get(uri).header(Constants.USER_HEADER, userId))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(budget);
+    }
+
+    @ParameterizedTest(name = "{0} as {1}")
+    @CsvSource({
+            "/bookings/summary, 3",
+            "/bookings/owner/summary, 1"
+    })
+    void summaryIsOneAggregateThenCached(String uri, long userId) throws Exception {
+        mvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mvc.perform(get(uri).header(Constants.USER_HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL").value(userId == OWNER_ID ? ITEMS * BOOKERS : ITEMS));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        mvc.perform(get(uri).header(Constants.USER_HEADER, userId))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
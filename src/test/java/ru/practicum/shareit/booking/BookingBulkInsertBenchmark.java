@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.BenchmarkContext;
+import ru.practicum.shareit.JmhOptions;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts 100 000 bookings one statement per row, the way IDENTITY ids forced Hibernate to,
+ * and through {@link BookingRepository#insertAll} with pooled sequence ids and JDBC batches.
+ * The database is an H2 TCP server, so every statement pays a loopback round trip as it would
+ * against a real server. The statement counts are checked by {@code BookingRepositoryTest}.
+ * Run with {@code mvn test -Pbenchmark -Dtest=BookingBulkInsertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BookingBulkInsertBenchmark {
+
+    private static final int BOOKINGS = 100_000;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private BookingRepository bookingRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+
+    private final LocalDateTime base = LocalDateTime.now().plusYears(1L);
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(JmhOptions.of(BookingBulkInsertBenchmark.class).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = BenchmarkContext.start(
+                "spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bulk-insert",
+                "spring.jpa.show-sql=false");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'booker', 'booker@email.ru')");
+        jdbcTemplate.update("insert into users (id, name, email) values (2, 'owner', 'owner@email.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) "
+                + "values (1, 'item', 'desc', true, 2)");
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteBookings() {
+        Integer inserted = jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class);
+        if (inserted == null || inserted != BOOKINGS) {
+            throw new IllegalStateException("Inserted " + inserted + " bookings instead of " + BOOKINGS);
+        }
+        jdbcTemplate.update("delete from bookings");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public void rowByRow() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+            for (Booking booking : bookings()) {
+                entityManager.persist(booking);
+                entityManager.flush();
+                entityManager.detach(booking);
+            }
+        });
+    }
+
+    @Benchmark
+    public void batched() {
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.insertAll(bookings()));
+    }
+
+    private List<Booking> bookings() {
+        Item item = entityManager.getReference(Item.class, 1L);
+        User booker = entityManager.getReference(User.class, 1L);
+        List<Booking> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusMinutes(i);
+            bookings.add(new Booking(item, start, start.plusSeconds(30), booker, BookingStatus.WAITING));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.Constants;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingConcurrencyTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 64;
+    private static final int DECISION_ROUNDS = 50;
+    private static final int DECIDERS = 8;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void addConcurrentBookingsForOneItem() throws Exception {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build());
+        UserDto booker = userService.add(UserDto.builder().name("booker").email("booker@email.ru").build());
+        ItemOutDto item = itemService.add(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .build());
+
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(Constants.USER_HEADER, String.valueOf(booker.getId()));
+        HttpEntity<BookingDto> request = new HttpEntity<>(bookingDto, headers);
+
+        List<Callable<HttpStatus>> calls = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            calls.add(() -> {
+                ResponseEntity<String> response = restTemplate.postForEntity("/bookings", request, String.class);
+                return response.getStatusCode();
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int created = 0;
+        int rejected = 0;
+        try {
+            for (Future<HttpStatus> result : executor.invokeAll(calls)) {
+                HttpStatus status = result.get();
+                if (status == HttpStatus.OK) {
+                    created++;
+                } else if (status == HttpStatus.BAD_REQUEST) {
+                    rejected++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, created);
+        assertEquals(REQUESTS - 1, rejected);
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void concurrentDecisionsOnOneBookingHaveOneWinner() throws Exception {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build());
+        List<Long> bookingIds = addBookings(owner, DECISION_ROUNDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(DECIDERS);
+        try {
+            for (Long bookingId : bookingIds) {
+                CyclicBarrier start = new CyclicBarrier(DECIDERS);
+                List<Callable<BookingStatus>> calls = new ArrayList<>();
+                for (int i = 0; i < DECIDERS; i++) {
+                    boolean approved = i % 2 == 0;
+                    calls.add(() -> {
+                        start.await();
+                        try {
+                            return bookingService.update(owner.getId(), bookingId, approved).getStatus();
+                        } catch (ValidationException e) {
+                            return null;
+                        }
+                    });
+                }
+                List<BookingStatus> winners = new ArrayList<>();
+                for (Future<BookingStatus> result : executor.invokeAll(calls)) {
+                    if (result.get() != null) {
+                        winners.add(result.get());
+                    }
+                }
+
+                assertEquals(1, winners.size());
+                assertEquals(winners.get(0), bookingRepository.findById(bookingId).orElseThrow().getStatus());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentBulkDecisionsApplyEveryBookingOnce() throws Exception {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build());
+        List<Long> bookingIds = addBookings(owner, DECISION_ROUNDS);
+
+        CyclicBarrier start = new CyclicBarrier(DECIDERS);
+        List<Callable<BookingBulkResultDto>> calls = new ArrayList<>();
+        for (int i = 0; i < DECIDERS; i++) {
+            boolean approved = i % 2 == 0;
+            List<BookingDecisionDto> decisions = bookingIds.stream()
+                    .map(bookingId -> new BookingDecisionDto(bookingId, approved))
+                    .collect(Collectors.toList());
+            calls.add(() -> {
+                start.await();
+                return bookingService.updateAll(owner.getId(), decisions);
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(DECIDERS);
+        Map<Long, Integer> wins = new HashMap<>();
+        try {
+            for (Future<BookingBulkResultDto> result : executor.invokeAll(calls)) {
+                BookingBulkResultDto bulkResult = result.get();
+                assertEquals(bookingIds.size(), bulkResult.getUpdated().size() + bulkResult.getFailed().size());
+                bulkResult.getUpdated().forEach(bookingId -> wins.merge(bookingId, 1, Integer::sum));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Long bookingId : bookingIds) {
+            assertEquals(1, wins.get(bookingId));
+        }
+    }
+
+    private List<Long> addBookings(UserDto owner, int count) {
+        UserDto booker = userService.add(UserDto.builder().name("booker").email("booker@email.ru").build());
+        ItemOutDto item = itemService.add(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .build());
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bookingIds.add(bookingService.add(booker.getId(), BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(2L * i + 1))
+                    .end(LocalDateTime.now().plusDays(2L * i + 2))
+                    .build()).getId());
+        }
+        return bookingIds;
+    }
+}
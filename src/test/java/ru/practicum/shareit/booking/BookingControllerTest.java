@@ -11,23 +11,35 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBulkErrorDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingViewDto;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.utils.Constants;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -121,7 +133,7 @@ public class BookingControllerTest {
                         .param("size", String.valueOf(size))
                         .contentType(MediaType.APPLICATION_JSON)
                         .header(Constants.USER_HEADER, user.getId()))
-                .andExpect(status().isInternalServerError());
+                .andExpect(status().isBadRequest());
 
         verify(bookingService, never()).findAll(user.getId(), "ALL", from, size);
     }
@@ -248,4 +260,103 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(List.of(bookingOutDto)), result);
     }
 
+    @Test
+    @SneakyThrows
+    void getAllWithCursorReturnsNextCursor() {
+        when(bookingService.findAllAfter(user.getId(), BookingState.ALL.toString(), "", 1))
+                .thenReturn(new CursorPage<>(List.of(bookingOutDto), "next"));
+
+        String result = mockMvc.perform(get("/bookings")
+                        .param("after", "")
+                        .param("size", "1")
+                        .header(Constants.USER_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Constants.NEXT_CURSOR_HEADER, "next"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(bookingOutDto)), result);
+        verify(bookingService, never()).findAll(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void updateStatusesReturnsUpdatedAndFailedIds() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingService.updateAll(user.getId(), decisions)).thenReturn(new BookingBulkResultDto(List.of(1L),
+                List.of(new BookingBulkErrorDto(2L, "Booking not found"))));
+
+        mockMvc.perform(patch("/bookings/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(Constants.USER_HEADER, user.getId())
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated[0]").value(1L))
+                .andExpect(jsonPath("$.failed[0].bookingId").value(2L))
+                .andExpect(jsonPath("$.failed[0].error").value("Booking not found"));
+    }
+
+    @Test
+    @SneakyThrows
+    void updateStatusesWithoutDecisionIsRejected() {
+        mockMvc.perform(patch("/bookings/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(Constants.USER_HEADER, user.getId())
+                        .content("[{\"bookingId\": 1}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).updateAll(anyLong(), anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    void updateStatusesWithNullDecisionIsRejected() {
+        mockMvc.perform(patch("/bookings/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(Constants.USER_HEADER, user.getId())
+                        .content("[{\"bookingId\": 1, \"approved\": true}, null]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).updateAll(anyLong(), anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnerSummaryReturnsCountPerState() {
+        Map<BookingState, Long> summary = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            summary.put(state, (long) state.ordinal());
+        }
+        when(bookingService.findSummary(BookingRole.OWNER, user.getId())).thenReturn(summary);
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header(Constants.USER_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL").value(0))
+                .andExpect(jsonPath("$.REJECTED").value(5));
+        verify(bookingService, never()).findSummary(BookingRole.BOOKER, user.getId());
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllWithFieldsReturnsOnlyRequestedFields() {
+        BookingViewDto view = BookingViewDto.builder()
+                .id(1L)
+                .item(new ItemShortDto(1L, "item"))
+                .build();
+        when(bookingService.findViews(BookingRole.BOOKER, user.getId(), "ALL", "id,item", null, null, null))
+                .thenReturn(new CursorPage<>(List.of(view), null));
+
+        mockMvc.perform(get("/bookings")
+                        .param("fields", "id,item")
+                        .header(Constants.USER_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].item.name").value("item"))
+                .andExpect(jsonPath("$[0].start").doesNotExist())
+                .andExpect(jsonPath("$[0].booker").doesNotExist());
+        verify(bookingService, never()).findAll(anyLong(), anyString(), any(), any());
+    }
 }
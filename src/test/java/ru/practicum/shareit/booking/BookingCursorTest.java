@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BookingCursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.parse("2024-06-06T11:12:00"), 42L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodeEmptyToken() {
+        assertNull(BookingCursor.decode(""));
+    }
+
+    @Test
+    void decodeInvalidToken() {
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the plans of the booking list and last/next booking queries against the migrated schema.
+ * H2 indexes every foreign key on its own and prefers those indexes for single-column lookups,
+ * so here only the absence of table scans is checked; {@link BookingIndexPostgresExplainTest}
+ * asserts the index names.
+ */
+@JdbcTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BookingIndexExplainTest {
+
+    protected static final String BOOKER_QUERY = "select b.* from bookings b where b.booker_id = 1 "
+            + "order by b.start_time desc, b.id desc";
+    protected static final String OWNER_QUERY = "select b.* from bookings b join items i on i.id = b.item_id "
+            + "where i.owner_id = 2 order by b.start_time desc, b.id desc";
+    protected static final String ITEM_QUERY = "select b.* from bookings b where b.item_id = 1 "
+            + "and b.status = 'APPROVED' and b.start_time > timestamp '2024-01-05 00:00:00' order by b.start_time";
+
+    protected static final String AVAILABILITY_QUERY = "select b.id, b.start_time, b.end_time from bookings b "
+            + "where b.item_id = 1 and b.start_time < timestamp '2024-01-10 00:00:00' "
+            + "and b.end_time > timestamp '2024-01-05 00:00:00' and b.status in ('WAITING', 'APPROVED') "
+            + "order by b.start_time";
+
+    private static final int USERS = 200;
+    private static final int BOOKINGS_PER_ITEM = 20;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void init() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "user" + i, "user" + i + "@email.ru"});
+            items.add(new Object[]{i, i});
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                bookings.add(new Object[]{Timestamp.valueOf(START.plusDays(j)), Timestamp.valueOf(START.plusDays(j + 1)),
+                        i, i % USERS + 1, j % 2 == 0 ? "APPROVED" : "WAITING"});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id) "
+                + "values (?, 'item', 'desc', true, ?)", items);
+        jdbcTemplate.batchUpdate("insert into bookings (start_time, end_time, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void bookerBookingsUseBookerIndex() {
+        String plan = explain(BOOKER_QUERY);
+
+        assertThat(plan).doesNotContain("tablescan");
+        assertThat(plan).contains("booker_id = 1 */");
+    }
+
+    @Test
+    void ownerBookingsUseOwnerAndItemIndexes() {
+        String plan = explain(OWNER_QUERY);
+
+        assertThat(plan).doesNotContain("tablescan");
+        assertThat(plan).contains("owner_id = 2 */");
+        assertThat(plan).contains("item_id = i.id */");
+    }
+
+    @Test
+    void itemBookingsUseItemStatusIndex() {
+        String plan = explain(ITEM_QUERY);
+
+        assertThat(plan).contains("ix_bookings_item_status_start");
+    }
+
+    @Test
+    void availabilityScansStartRangeOfItemStatusIndex() {
+        String plan = explain(AVAILABILITY_QUERY);
+
+        assertThat(plan).contains("ix_bookings_item_status_start");
+        assertThat(plan).contains("and start_time < timestamp '2024-01-10 00:00:00'\n     */");
+    }
+
+    protected String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class)).toLowerCase();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the plan checks against a disposable PostgreSQL database, all its data is deleted.
+ * Run with {@code mvn test -Dshareit.test.postgres.url=jdbc:postgresql://localhost:5432/shareit_test
+ * -Dshareit.test.postgres.username=... -Dshareit.test.postgres.password=...}.
+ */
+@EnabledIfSystemProperty(named = "shareit.test.postgres.url", matches = ".+")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${shareit.test.postgres.url}",
+        "spring.datasource.username=${shareit.test.postgres.username:shareit}",
+        "spring.datasource.password=${shareit.test.postgres.password:shareit}"
+})
+public class BookingIndexPostgresExplainTest extends BookingIndexExplainTest {
+
+    @Test
+    @Override
+    void bookerBookingsUseBookerIndex() {
+        assertThat(explain(BOOKER_QUERY)).contains("index scan using ix_bookings_booker_start");
+    }
+
+    @Test
+    @Override
+    void ownerBookingsUseOwnerAndItemIndexes() {
+        String plan = explain(OWNER_QUERY);
+
+        assertThat(plan).contains("ix_items_owner");
+        assertThat(plan).contains("ix_bookings_item_status_start");
+    }
+
+    @Test
+    @Override
+    void availabilityScansStartRangeOfItemStatusIndex() {
+        assertThat(explain(AVAILABILITY_QUERY)).contains("ix_bookings_item_status_start");
+    }
+
+    @Override
+    protected String explain(String sql) {
+        // a few thousand rows fit in a handful of pages, where a sequential scan is always cheapest
+        jdbcTemplate.execute("set enable_seqscan = off");
+        return super.explain(sql);
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private final Item item = Item.builder()
+            .id(1L)
+            .name("item")
+            .description("desc")
+            .available(true)
+            .build();
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1L);
+
+    @BeforeEach
+    void init() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, Duration.ofMinutes(10L), nanoTime::get);
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    @Test
+    void reserveOverlappingBooking() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        bookingIntervalIndex.reserve(booking(1L, start, start.plusDays(2L)));
+
+        assertThrows(ValidationException.class,
+                () -> bookingIntervalIndex.reserve(booking(2L, start.plusDays(1L), start.plusDays(3L))));
+        assertThrows(ValidationException.class,
+                () -> bookingIntervalIndex.reserve(booking(3L, start.minusDays(1L), start.plusHours(1L))));
+        assertThrows(ValidationException.class,
+                () -> bookingIntervalIndex.reserve(booking(4L, start.plusHours(1L), start.plusHours(2L))));
+    }
+
+    @Test
+    void reserveAdjacentBookings() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        bookingIntervalIndex.reserve(booking(1L, start, start.plusDays(1L)));
+
+        assertDoesNotThrow(() -> bookingIntervalIndex.reserve(booking(2L, start.plusDays(1L), start.plusDays(2L))));
+        assertDoesNotThrow(() -> bookingIntervalIndex.reserve(booking(3L, start.minusDays(1L), start)));
+        verify(bookingRepository, times(1))
+                .findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reserveAfterRelease() {
+        Booking booking = booking(1L, start, start.plusDays(1L));
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        bookingIntervalIndex.reserve(booking);
+
+        bookingIntervalIndex.release(booking);
+
+        assertDoesNotThrow(() -> bookingIntervalIndex.reserve(booking(2L, start, start.plusDays(1L))));
+    }
+
+    @Test
+    void reserveOverlappingStoredBooking() {
+        BookingPeriod stored = new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return start.plusDays(1L);
+            }
+        };
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(stored));
+
+        assertDoesNotThrow(() -> bookingIntervalIndex.reserve(booking(1L, start, start.plusDays(1L))));
+        assertThrows(ValidationException.class,
+                () -> bookingIntervalIndex.reserve(booking(2L, start.plusHours(1L), start.plusDays(2L))));
+    }
+
+    @Test
+    void idleItemIsReloadedFromRepository() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        bookingIntervalIndex.reserve(booking(1L, start, start.plusDays(1L)));
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(5L));
+        bookingIntervalIndex.reserve(booking(2L, start.plusDays(1L), start.plusDays(2L)));
+
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(11L));
+        assertDoesNotThrow(() -> bookingIntervalIndex.reserve(booking(3L, start, start.plusDays(1L))));
+
+        verify(bookingRepository, times(2))
+                .findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyCollection(), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.BenchmarkContext;
+import ru.practicum.shareit.JmhOptions;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares offset and cursor paging of {@code /bookings} on the first page and on page 10 000 of 100 010
+ * bookings. Cursor paging seeks on the index, so its time should stay flat with depth; the run ends with
+ * the page 10 000 to page 1 ratio of both modes.
+ * Run with {@code mvn test -Pbenchmark -Dtest=BookingPaginationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int BOOKINGS = (DEEP_PAGE + 1) * PAGE_SIZE;
+
+    @Param({"1", "10000"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private int from;
+    private String cursor;
+
+    private final LocalDateTime base = LocalDateTime.now().plusYears(1L).truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void run() throws RunnerException {
+        Collection<RunResult> results = new Runner(JmhOptions.of(BookingPaginationBenchmark.class).build()).run();
+        for (String mode : List.of("offset", "cursor")) {
+            System.out.printf("%s paging, page %d / page 1: %.2f%n", mode, DEEP_PAGE,
+                    score(results, mode, DEEP_PAGE) / score(results, mode, 1));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookingService = context.getBean(BookingService.class);
+        seed(context.getBean(JdbcTemplate.class));
+        from = (page - 1) * PAGE_SIZE;
+        cursor = page == 1 ? "" : new BookingCursor(base.minusMinutes(from), (long) from).encode();
+        // bookings are numbered newest first, so both modes have to start the page with the same id
+        if (offset().get(0).getId() != from + 1 || cursor().get(0).getId() != from + 1) {
+            throw new IllegalStateException("Page " + page + " does not start with booking " + (from + 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingOutDto> offset() {
+        return bookingService.findAll(1L, "ALL", from, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingOutDto> cursor() {
+        return bookingService.findAllAfter(1L, "ALL", cursor, PAGE_SIZE).getContent();
+    }
+
+    private static double score(Collection<RunResult> results, String mode, int page) {
+        return results.stream()
+                .filter(result -> result.getParams().getBenchmark().endsWith("." + mode))
+                .filter(result -> result.getParams().getParam("page").equals(String.valueOf(page)))
+                .findFirst()
+                .orElseThrow()
+                .getPrimaryResult()
+                .getScore();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'booker', 'booker@email.ru')");
+        jdbcTemplate.update("insert into users (id, name, email) values (2, 'owner', 'owner@email.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) "
+                + "values (1, 'item', 'desc', true, 2)");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            LocalDateTime start = base.minusMinutes(i);
+            rows.add(new Object[]{i, Timestamp.valueOf(start), Timestamp.valueOf(start.plusSeconds(30))});
+            if (rows.size() == 10_000) {
+                insert(jdbcTemplate, rows);
+                rows.clear();
+            }
+        }
+        insert(jdbcTemplate, rows);
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_time, end_time, item_id, booker_id, status) "
+                + "values (?, ?, ?, 1, 1, 'APPROVED')", rows);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.storage.BookingQuery;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingQueryTest {
+
+    @Test
+    void bookerQueryDoesNotJoinItems() {
+        for (BookingState state : BookingState.values()) {
+            assertFalse(BookingQuery.of(BookingRole.BOOKER, state, false).getJpql().contains("join"));
+        }
+    }
+
+    @Test
+    void ownerQueryJoinsItems() {
+        assertTrue(BookingQuery.of(BookingRole.OWNER, BookingState.ALL, false).getJpql()
+                .contains("join b.item i where i.owner.id = :userId"));
+    }
+
+    @Test
+    void currentStateUsesStartRange() {
+        assertEquals("select b from Booking b where b.booker.id = :userId "
+                        + "and b.start <= :now and b.end >= :now order by b.start desc, b.id desc",
+                BookingQuery.of(BookingRole.BOOKER, BookingState.CURRENT, false).getJpql());
+    }
+
+    @Test
+    void queryIsBuiltOncePerShape() {
+        assertSame(BookingQuery.of(BookingRole.OWNER, BookingState.PAST, true),
+                BookingQuery.of(BookingRole.OWNER, BookingState.PAST, true));
+    }
+
+    @Test
+    void viewSelectsOnlyRequestedColumns() {
+        assertEquals("select b.id as id, b.start as startTime, b.status as status, b.booker.id as bookerId "
+                        + "from Booking b where b.booker.id = :userId and b.status = :status "
+                        + "order by b.start desc, b.id desc",
+                BookingQuery.of(BookingRole.BOOKER, BookingState.REJECTED, false)
+                        .getViewJpql(EnumSet.of(BookingField.STATUS, BookingField.BOOKER)));
+    }
+
+    @Test
+    void bookerViewJoinsItemsOnlyForItemField() {
+        BookingQuery query = BookingQuery.of(BookingRole.BOOKER, BookingState.ALL, false);
+
+        assertFalse(query.getViewJpql(EnumSet.of(BookingField.ID, BookingField.START)).contains("join"));
+        assertTrue(query.getViewJpql(EnumSet.of(BookingField.ITEM))
+                .startsWith("select b.id as id, b.start as startTime, i.id as itemId, i.name as itemName "
+                        + "from Booking b join b.item i where"));
+    }
+
+    @Test
+    void viewIsBuiltOncePerFields() {
+        BookingQuery query = BookingQuery.of(BookingRole.OWNER, BookingState.FUTURE, true);
+
+        assertSame(query.getViewJpql(EnumSet.of(BookingField.ITEM, BookingField.END)),
+                query.getViewJpql(EnumSet.of(BookingField.END, BookingField.ITEM)));
+    }
+}
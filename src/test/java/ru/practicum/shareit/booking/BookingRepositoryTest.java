@@ -1,25 +1,45 @@
 package ru.practicum.shareit.booking;
 
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingField;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBooking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
@@ -30,6 +50,9 @@ public class BookingRepositoryTest {
     @Autowired
     private TestEntityManager testEntityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private final User user = User.builder()
             .name("name")
             .email("email@email.com")
@@ -80,6 +103,8 @@ public class BookingRepositoryTest {
         bookingRepository.save(booking);
         bookingRepository.save(pastBooking);
         bookingRepository.save(futureBooking);
+        testEntityManager.flush();
+        testEntityManager.clear();
     }
 
     @AfterEach
@@ -87,38 +112,78 @@ public class BookingRepositoryTest {
         bookingRepository.deleteAll();
     }
 
+    @Test
+    void plainInsertsAndSavesTakeDistinctIds() {
+        String insert = "insert into bookings (start_time, end_time, item_id, booker_id, status) "
+                + "values (current_timestamp, current_timestamp, ?, ?, 'WAITING')";
+        jdbcTemplate.update(insert, item.getId(), user.getId());
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(3L))
+                .end(LocalDateTime.now().plusDays(4L))
+                .build());
+        testEntityManager.flush();
+        jdbcTemplate.update(insert, item.getId(), user.getId());
+
+        assertEquals(6, bookingRepository.count());
+    }
+
+    @Test
+    void insertAllSendsBatchesInsteadOfAStatementPerRow() {
+        int rows = 200;
+        EntityManager entityManager = testEntityManager.getEntityManager();
+        Item reference = entityManager.getReference(Item.class, item.getId());
+        User booker = entityManager.getReference(User.class, user.getId());
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime start = LocalDateTime.now().plusDays(3L).plusMinutes(i);
+            bookings.add(new Booking(reference, start, start.plusSeconds(30), booker, BookingStatus.WAITING));
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        bookingRepository.insertAll(bookings);
+
+        assertEquals(rows + 3, bookingRepository.count());
+        assertTrue(statistics.getPrepareStatementCount() * 10 < rows);
+    }
+
     @Test
     void findAllByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllBookingsByBookerId(1L, PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.BOOKER, 1L, BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 3);
+        assertEquals(bookings.getNumberOfElements(), 3);
         assertEquals(bookings.stream().findFirst().get().getBooker().getId(), 1L);
     }
 
     @Test
     void findAllCurrentBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllCurrentBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.BOOKER, 1L, BookingState.CURRENT,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getBooker().getId(), 1L);
     }
 
     @Test
     void findAllPastBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllPastBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.BOOKER, 1L, BookingState.PAST,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getId(), 2L);
     }
 
     @Test
     void findAllFutureBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllFutureBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.BOOKER, 1L, BookingState.FUTURE,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getId(), 3L);
     }
 
@@ -133,10 +198,10 @@ public class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(waitingBooking);
-        Page<Booking> bookings = bookingRepository.findAllWaitingBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.BOOKER, 1L, BookingState.WAITING,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getStatus(), BookingStatus.WAITING);
     }
 
@@ -151,44 +216,45 @@ public class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(rejectedBooking);
-        Page<Booking> bookings = bookingRepository.findAllRejectedBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.BOOKER, 1L, BookingState.REJECTED,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getStatus(), BookingStatus.REJECTED);
     }
 
     @Test
     void findAllByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllBookingsByOwnerId(2L, PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.OWNER, 2L, BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 3);
+        assertEquals(bookings.getNumberOfElements(), 3);
     }
 
     @Test
     void findAllCurrentBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllCurrentBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.OWNER, 2L, BookingState.CURRENT,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getItem().getOwner().getId(), 2L);
     }
 
     @Test
     void findAllPastBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllPastBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.OWNER, 2L, BookingState.PAST,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getItem().getOwner().getId(), 2L);
     }
 
     @Test
     void findAllFutureBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllFutureBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.OWNER, 2L, BookingState.FUTURE,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getItem().getOwner().getId(), 2L);
     }
 
@@ -203,10 +269,10 @@ public class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(waitingBooking);
-        Page<Booking> bookings = bookingRepository.findAllWaitingBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.OWNER, 2L, BookingState.WAITING,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getStatus(), BookingStatus.WAITING);
     }
 
@@ -221,10 +287,10 @@ public class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(rejectedBooking);
-        Page<Booking> bookings = bookingRepository.findAllRejectedBookingsByOwnerId(2L,
-                PageRequest.of(0, 10));
+        Slice<Booking> bookings = bookingRepository.findAllByRole(BookingRole.OWNER, 2L, BookingState.REJECTED,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
-        assertEquals(bookings.getTotalElements(), 1);
+        assertEquals(bookings.getNumberOfElements(), 1);
         assertEquals(bookings.stream().findFirst().get().getStatus(), BookingStatus.REJECTED);
     }
 
@@ -235,4 +301,118 @@ public class BookingRepositoryTest {
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getStatus(), BookingStatus.APPROVED);
     }
+
+    @Test
+    void findAllAfterByBookerId() {
+        Slice<Booking> firstPage = bookingRepository.findAllAfter(BookingRole.BOOKER, 1L, BookingState.ALL,
+                LocalDateTime.now(), null, 2);
+
+        assertTrue(firstPage.hasNext());
+        assertEquals(List.of(3L, 1L), firstPage.map(Booking::getId).getContent());
+
+        Slice<Booking> secondPage = bookingRepository.findAllAfter(BookingRole.BOOKER, 1L, BookingState.ALL,
+                LocalDateTime.now(), BookingCursor.of(firstPage.getContent().get(1)), 2);
+
+        assertFalse(secondPage.hasNext());
+        assertEquals(List.of(2L), secondPage.map(Booking::getId).getContent());
+    }
+
+    @Test
+    void findAllAfterByOwnerIdAndState() {
+        Slice<Booking> bookings = bookingRepository.findAllAfter(BookingRole.OWNER, 2L, BookingState.PAST,
+                LocalDateTime.now(), null, 10);
+
+        assertFalse(bookings.hasNext());
+        assertEquals(List.of(2L), bookings.map(Booking::getId).getContent());
+    }
+
+    @Test
+    void findLastAndNextByItemIdIn() {
+        Booking rejectedBooking = Booking.builder()
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.REJECTED)
+                .start(LocalDateTime.now().plusHours(1L))
+                .end(LocalDateTime.now().plusHours(2L))
+                .build();
+
+        bookingRepository.save(rejectedBooking);
+        List<ItemBooking> bookings = bookingRepository.findLastAndNextByItemIdIn(List.of(item.getId()),
+                LocalDateTime.now());
+
+        assertEquals(2, bookings.size());
+        assertEquals(List.of(1L, 3L), bookings.stream().map(ItemBooking::getId).sorted().collect(Collectors.toList()));
+        assertEquals(item.getId(), bookings.get(0).getItemId());
+        assertEquals(user.getId(), bookings.get(0).getBookerId());
+    }
+
+    @Test
+    void countStatesMatchesListingOfEveryState() {
+        User booker = testEntityManager.find(User.class, user.getId());
+        Item bookedItem = testEntityManager.find(Item.class, item.getId());
+        bookingRepository.save(new Booking(bookedItem, LocalDateTime.now().plusDays(3L),
+                LocalDateTime.now().plusDays(4L), booker, BookingStatus.WAITING));
+        bookingRepository.save(new Booking(bookedItem, LocalDateTime.now().minusDays(4L),
+                LocalDateTime.now().minusDays(3L), booker, BookingStatus.REJECTED));
+        testEntityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+
+        BookingStateCounts bookerCounts = bookingRepository.countStatesByBookerId(user.getId(), now);
+        BookingStateCounts ownerCounts = bookingRepository.countStatesByOwnerId(owner.getId(), now);
+
+        for (BookingRole role : BookingRole.values()) {
+            Long userId = role == BookingRole.OWNER ? owner.getId() : user.getId();
+            Map<BookingState, Long> summary = BookingMapper.toSummary(role == BookingRole.OWNER
+                    ? ownerCounts
+                    : bookerCounts);
+            for (BookingState state : BookingState.values()) {
+                long listed = bookingRepository.findAllByRole(role, userId, state, now, PageRequest.of(0, 10))
+                        .getNumberOfElements();
+                assertEquals(listed, summary.get(state), role + " " + state);
+            }
+        }
+        assertEquals(5, bookerCounts.getAll());
+        assertEquals(0, bookingRepository.countStatesByOwnerId(user.getId(), now).getAll());
+    }
+
+    @Test
+    void findViewsReturnsRowsOfEntityListing() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<BookingField> fields = EnumSet.allOf(BookingField.class);
+        for (BookingRole role : BookingRole.values()) {
+            Long userId = role == BookingRole.OWNER ? owner.getId() : user.getId();
+            List<Booking> bookings = bookingRepository.findAllByRole(role, userId, BookingState.ALL, now,
+                    PageRequest.of(0, 2)).getContent();
+
+            Slice<BookingView> views = bookingRepository.findViewsByRole(role, userId, BookingState.ALL, fields, now,
+                    PageRequest.of(0, 2));
+
+            assertTrue(views.hasNext());
+            assertEquals(bookings.size(), views.getNumberOfElements());
+            for (int i = 0; i < bookings.size(); i++) {
+                Booking booking = bookings.get(i);
+                assertEquals(new BookingView(booking.getId(), booking.getStart(), booking.getEnd(),
+                        booking.getStatus(), booking.getItem().getId(), booking.getItem().getName(),
+                        booking.getBooker().getId()), views.getContent().get(i));
+            }
+        }
+    }
+
+    @Test
+    void findViewsAfterLeavesUnrequestedColumnsEmpty() {
+        BookingView first = bookingRepository.findViewsAfter(BookingRole.BOOKER, user.getId(), BookingState.ALL,
+                EnumSet.noneOf(BookingField.class), LocalDateTime.now(), null, 1).getContent().get(0);
+
+        Slice<BookingView> views = bookingRepository.findViewsAfter(BookingRole.BOOKER, user.getId(),
+                BookingState.ALL, EnumSet.of(BookingField.STATUS), LocalDateTime.now(),
+                new BookingCursor(first.getStart(), first.getId()), 10);
+
+        assertEquals(List.of(booking.getId(), pastBooking.getId()), views.stream().map(BookingView::getId)
+                .collect(Collectors.toList()));
+        BookingView view = views.getContent().get(0);
+        assertEquals(BookingStatus.APPROVED, view.getStatus());
+        assertNull(view.getEnd());
+        assertNull(view.getItemName());
+        assertNull(view.getBookerId());
+    }
 }
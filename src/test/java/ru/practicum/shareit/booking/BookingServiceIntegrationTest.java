@@ -1,24 +1,37 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -34,6 +47,12 @@ public class BookingServiceIntegrationTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final UserDto userDto1 = UserDto.builder()
             .name("user")
             .email("user@email.ru")
@@ -62,6 +81,12 @@ public class BookingServiceIntegrationTest {
             .end(LocalDateTime.now().plusDays(2L))
             .build();
 
+    private final BookingDto bookingDto2 = BookingDto.builder()
+            .itemId(2L)
+            .start(LocalDateTime.now().plusDays(3L))
+            .end(LocalDateTime.now().plusDays(4L))
+            .build();
+
     @Test
     void addBooking() {
         UserDto user1 = userService.add(userDto1);
@@ -70,7 +95,7 @@ public class BookingServiceIntegrationTest {
         itemService.add(user2.getId(), itemDto2);
 
         BookingOutDto bookingOutDto1 = bookingService.add(user1.getId(), bookingDto1);
-        BookingOutDto bookingOutDto2 = bookingService.add(user1.getId(), bookingDto1);
+        BookingOutDto bookingOutDto2 = bookingService.add(user1.getId(), bookingDto2);
 
         assertEquals(1L, bookingOutDto1.getId());
         assertEquals(2L, bookingOutDto2.getId());
@@ -90,4 +115,76 @@ public class BookingServiceIntegrationTest {
 
         assertEquals(2, bookingsDtoOut.size());
     }
+
+    @Test
+    void addOverlappingBooking() {
+        UserDto user1 = userService.add(userDto1);
+        UserDto user2 = userService.add(userDto2);
+        itemService.add(user1.getId(), itemDto1);
+        itemService.add(user2.getId(), itemDto2);
+        bookingService.add(user1.getId(), bookingDto1);
+
+        BookingDto overlapping = BookingDto.builder()
+                .itemId(2L)
+                .start(bookingDto1.getStart().plusHours(12L))
+                .end(bookingDto1.getEnd().plusHours(12L))
+                .build();
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingService.add(user1.getId(), overlapping));
+        assertEquals("Item is already booked for this time", validationException.getMessage());
+    }
+
+    @Test
+    void addOverlappingStoredBookingOnColdIndex() {
+        UserDto user1 = userService.add(userDto1);
+        UserDto user2 = userService.add(userDto2);
+        itemService.add(user1.getId(), itemDto1);
+        itemService.add(user2.getId(), itemDto2);
+        // stored without the index, so the item is loaded from the database on the next booking
+        entityManager.persist(new Booking(entityManager.find(Item.class, 2L), bookingDto1.getStart(),
+                bookingDto1.getEnd(), entityManager.find(User.class, user1.getId()), BookingStatus.APPROVED));
+
+        BookingDto overlapping = BookingDto.builder()
+                .itemId(2L)
+                .start(bookingDto1.getStart().plusHours(12L))
+                .end(bookingDto1.getEnd().plusHours(12L))
+                .build();
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingService.add(user1.getId(), overlapping));
+        assertEquals("Item is already booked for this time", validationException.getMessage());
+    }
+
+    @Test
+    void updateAllLoadsBookingsOnceAndUpdatesThemInOneBatch() {
+        UserDto user1 = userService.add(userDto1);
+        UserDto user2 = userService.add(userDto2);
+        itemService.add(user1.getId(), itemDto1);
+        itemService.add(user2.getId(), itemDto2);
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            BookingOutDto booking = bookingService.add(user1.getId(), BookingDto.builder()
+                    .itemId(2L)
+                    .start(LocalDateTime.now().plusDays(2L * i + 1))
+                    .end(LocalDateTime.now().plusDays(2L * i + 2))
+                    .build());
+            decisions.add(new BookingDecisionDto(booking.getId(), i % 2 == 0));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BookingBulkResultDto result = bookingService.updateAll(user2.getId(), decisions);
+        entityManager.flush();
+
+        assertEquals(20, result.getUpdated().size());
+        assertEquals(List.of(), result.getFailed());
+        // the conditional updates run as one JDBC batch on the session's connection, outside Hibernate's counters
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        entityManager.clear();
+        assertEquals(10, bookingService.findAllOwner(user2.getId(), BookingState.REJECTED.toString(), 0, 20).size());
+    }
 }
@@ -5,13 +5,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingBulkErrorDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -24,12 +31,17 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +58,12 @@ public class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private final User user = User.builder()
             .id(1L)
             .name("user")
@@ -122,7 +140,7 @@ public class BookingServiceTest {
 
     @Test
     void findForeignItem() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         NotFoundException bookingNotFoundException = assertThrows(NotFoundException.class,
                 () -> bookingService.findBookingByUserId(3L, booking.getId()));
@@ -132,18 +150,30 @@ public class BookingServiceTest {
 
     @Test
     void update() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaiting));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(bookingWaiting);
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(bookingWaiting));
+        when(bookingRepository.updateStatusIfWaiting(bookingWaiting.getId(), BookingStatus.APPROVED)).thenReturn(1);
 
         BookingOutDto actualBookingDtoOut = bookingService.update(owner.getId(), bookingWaiting.getId(), true);
 
         assertEquals(BookingStatus.APPROVED, actualBookingDtoOut.getStatus());
     }
 
+    @Test
+    void updateDecidedConcurrentlyIsRejected() {
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(bookingWaiting));
+        when(bookingRepository.updateStatusIfWaiting(bookingWaiting.getId(), BookingStatus.REJECTED)).thenReturn(0);
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingService.update(owner.getId(), bookingWaiting.getId(), false));
+
+        assertEquals("Booking is not in WAITING status", validationException.getMessage());
+        verify(bookingIntervalIndex, never()).release(bookingWaiting);
+    }
+
 
     @Test
     void updateForeignItemInWaiting() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         ValidationException validationException = assertThrows(ValidationException.class,
                 () -> bookingService.update(owner.getId(), booking.getId(), false));
@@ -153,7 +183,7 @@ public class BookingServiceTest {
 
     @Test
     void findWrongBookingId() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException bookingNotFoundException = assertThrows(NotFoundException.class,
                 () -> bookingService.findBookingByUserId(1L, booking.getId()));
@@ -165,7 +195,8 @@ public class BookingServiceTest {
     void getAllByBookerWhenBookingStateAll() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllBookingsByBookerId(anyLong(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.ALL),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAll(user.getId(), "ALL", 0, 10);
 
@@ -176,8 +207,8 @@ public class BookingServiceTest {
     void getAllByBookerWhenBookingStatePAST() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllPastBookingsByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.PAST),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAll(user.getId(), "PAST", 0, 10);
 
@@ -188,8 +219,8 @@ public class BookingServiceTest {
     void getAllByBookerWhenBookingStateREJECTED() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllRejectedBookingsByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.REJECTED),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAll(user.getId(), "REJECTED", 0, 10);
 
@@ -201,8 +232,8 @@ public class BookingServiceTest {
     void getAllByBooker_whenBookingStateCURRENT() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllCurrentBookingsByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.CURRENT),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAll(user.getId(), "CURRENT", 0, 10);
 
@@ -213,8 +244,8 @@ public class BookingServiceTest {
     void getAllByBookerWhenBookingStateFUTURE() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllFutureBookingsByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.FUTURE),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAll(user.getId(), "FUTURE", 0, 10);
 
@@ -225,8 +256,8 @@ public class BookingServiceTest {
     void getAllByBookerWhenBookingStateWAITING() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllWaitingBookingsByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.WAITING),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAll(user.getId(), "WAITING", 0, 10);
 
@@ -237,7 +268,8 @@ public class BookingServiceTest {
     void getAllByOwnerWhenBookingStateAll() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllBookingsByOwnerId(anyLong(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.OWNER), anyLong(), eq(BookingState.ALL),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAllOwner(user.getId(), "ALL", 0, 10);
 
@@ -248,8 +280,8 @@ public class BookingServiceTest {
     void getAllByOwnerWhenBookingStateCURRENT() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllCurrentBookingsByOwnerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.OWNER), anyLong(), eq(BookingState.CURRENT),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAllOwner(user.getId(), "CURRENT", 0, 10);
 
@@ -260,8 +292,8 @@ public class BookingServiceTest {
     void getAllByOwnerWhenBookingStatePAST() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllPastBookingsByOwnerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.OWNER), anyLong(), eq(BookingState.PAST),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAllOwner(user.getId(), "PAST", 0, 10);
 
@@ -272,8 +304,8 @@ public class BookingServiceTest {
     void getAllByOwnerWhenBookingStateFUTURE() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllFutureBookingsByOwnerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.OWNER), anyLong(), eq(BookingState.FUTURE),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAllOwner(user.getId(), "FUTURE", 0, 10);
 
@@ -284,8 +316,8 @@ public class BookingServiceTest {
     void getAllByOwnerWhenBookingStateWAITING() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllWaitingBookingsByOwnerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.OWNER), anyLong(), eq(BookingState.WAITING),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAllOwner(user.getId(), "WAITING", 0, 10);
 
@@ -296,8 +328,8 @@ public class BookingServiceTest {
     void getAllByOwnerWhenBookingStateREJECTED() {
         List<BookingOutDto> expectedBookingsDtoOut = List.of(BookingMapper.toBookingOut(booking));
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllRejectedBookingsByOwnerId(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllByRole(eq(BookingRole.OWNER), anyLong(), eq(BookingState.REJECTED),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingOutDto> actualBookingsDtoOut = bookingService.findAllOwner(user.getId(), "REJECTED", 0, 10);
 
@@ -318,4 +350,47 @@ public class BookingServiceTest {
         assertThrows(ValidationException.class,
                 () -> bookingService.add(user.getId(), bookingDto));
     }
+
+    @Test
+    void updateAllAppliesValidDecisionsAndReportsTheRest() {
+        Booking approved = Booking.builder().id(2L).status(BookingStatus.APPROVED).item(item).booker(user).build();
+        Booking foreign = Booking.builder().id(3L).status(BookingStatus.WAITING)
+                .item(Item.builder().id(2L).owner(user).build()).booker(owner).build();
+        Booking rejected = Booking.builder().id(4L).status(BookingStatus.WAITING).item(item).booker(user).build();
+        Booking decidedMeanwhile = Booking.builder().id(6L).status(BookingStatus.WAITING).item(item).booker(user)
+                .build();
+        when(bookingRepository.findAllWithItemByIdIn(List.of(1L, 2L, 3L, 4L, 5L, 6L)))
+                .thenReturn(List.of(bookingWaiting, approved, foreign, rejected, decidedMeanwhile));
+        when(bookingRepository.updateStatusesIfWaiting(Map.of(1L, BookingStatus.APPROVED, 4L, BookingStatus.REJECTED,
+                6L, BookingStatus.REJECTED))).thenReturn(Set.of(1L, 4L));
+
+        BookingBulkResultDto result = bookingService.updateAll(owner.getId(), List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, true),
+                new BookingDecisionDto(4L, false),
+                new BookingDecisionDto(5L, true),
+                new BookingDecisionDto(1L, false),
+                new BookingDecisionDto(6L, false)));
+
+        assertEquals(List.of(1L, 4L), result.getUpdated());
+        assertEquals(List.of(
+                new BookingBulkErrorDto(2L, "Booking is not in WAITING status"),
+                new BookingBulkErrorDto(3L, "User is not owner"),
+                new BookingBulkErrorDto(5L, "Booking not found"),
+                new BookingBulkErrorDto(1L, "Duplicate booking id"),
+                new BookingBulkErrorDto(6L, "Booking is not in WAITING status")), result.getFailed());
+        verify(bookingIntervalIndex).release(rejected);
+        verify(bookingIntervalIndex, never()).release(decidedMeanwhile);
+    }
+
+    @Test
+    void findViewsWithUnknownFieldIsRejected() {
+        when(userService.findById(userDto.getId())).thenReturn(userDto);
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> bookingService.findViews(
+                BookingRole.BOOKER, userDto.getId(), "ALL", "id,price", 0, 10, null));
+
+        assertEquals("Unknown field: price", exception.getMessage());
+    }
 }
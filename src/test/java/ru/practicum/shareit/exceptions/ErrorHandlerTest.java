@@ -0,0 +1,63 @@
+package ru.practicum.shareit.exceptions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ErrorHandlerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ErrorHandler errorHandler = new ErrorHandler(
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                    .getBeanProvider(MeterRegistry.class), 10);
+
+    @Test
+    void domainExceptionsCarryNoStackTrace() {
+        assertEquals(0, new NotFoundException("Item not found").getStackTrace().length);
+        assertEquals(0, new ValidationException("Invalid dates").getStackTrace().length);
+    }
+
+    @Test
+    void errorsAreCountedPerExceptionAndStatus() {
+        errorHandler.handleNotFoundException(new NotFoundException("User not found"));
+        errorHandler.handleNotFoundException(new NotFoundException("Item not found"));
+        errorHandler.handleValidationException(new ValidationException("Invalid dates"));
+        errorHandler.handleOtherException(new IllegalStateException("Broken"));
+
+        assertEquals(2.0, count("NotFoundException", "404"));
+        assertEquals(1.0, count("ValidationException", "400"));
+        assertEquals(1.0, count("IllegalStateException", "500"));
+    }
+
+    @Test
+    void logLinesAboveTheLimitAreDroppedAndReportedWithTheNextLine() {
+        AtomicLong nanoTime = new AtomicLong();
+        ErrorLogLimiter limiter = new ErrorLogLimiter(2, nanoTime::get);
+
+        assertEquals(0, limiter.acquire(NotFoundException.class));
+        assertEquals(0, limiter.acquire(NotFoundException.class));
+        assertEquals(ErrorLogLimiter.DROP, limiter.acquire(NotFoundException.class));
+        assertEquals(ErrorLogLimiter.DROP, limiter.acquire(NotFoundException.class));
+        assertEquals(0, limiter.acquire(ValidationException.class));
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, limiter.acquire(NotFoundException.class));
+        assertEquals(0, limiter.acquire(NotFoundException.class));
+    }
+
+    private double count(String exception, String status) {
+        return meterRegistry.get(ErrorHandler.ERRORS)
+                .tag("exception", exception)
+                .tag("status", status)
+                .counter()
+                .count();
+    }
+}
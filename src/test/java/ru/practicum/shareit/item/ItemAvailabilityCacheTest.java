@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ItemAvailabilityCacheTest {
+
+    @Autowired
+    private ItemAvailabilityService itemAvailabilityService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final LocalDateTime from = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.DAYS);
+    private final LocalDateTime to = from.plusDays(10L);
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemOutDto item;
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build());
+        booker = userService.add(UserDto.builder().name("booker").email("booker@email.ru").build());
+        item = itemService.add(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .build());
+    }
+
+    @Test
+    void repeatedRangeIsServedFromCache() {
+        itemAvailabilityService.findAvailability(item.getId(), from, to);
+        statistics.clear();
+
+        ItemAvailabilityDto availability = itemAvailabilityService.findAvailability(item.getId(), from, to);
+
+        assertEquals(List.of(new AvailabilityIntervalDto(from, to)), availability.getFree());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void addingAndRejectingBookingInvalidatesItemRanges() {
+        itemAvailabilityService.findAvailability(item.getId(), from, to);
+        itemAvailabilityService.findAvailability(item.getId(), from, to.plusDays(1L));
+
+        BookingOutDto booking = bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(from.plusDays(2L))
+                .end(from.plusDays(3L))
+                .build());
+
+        assertEquals(List.of(new AvailabilityIntervalDto(from.plusDays(2L), from.plusDays(3L))),
+                itemAvailabilityService.findAvailability(item.getId(), from, to).getBusy());
+        assertEquals(1, itemAvailabilityService.findAvailability(item.getId(), from, to.plusDays(1L))
+                .getBusy().size());
+
+        bookingService.update(owner.getId(), booking.getId(), false);
+
+        assertEquals(List.of(), itemAvailabilityService.findAvailability(item.getId(), from, to).getBusy());
+    }
+
+    @Test
+    void resultPutLateByReadBeforeBookingIsNotServed() {
+        long version = itemAvailabilityService.version(item.getId());
+        ItemAvailabilityDto beforeBooking = itemAvailabilityService.findAvailability(item.getId(), from, to);
+
+        bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(from.plusDays(2L))
+                .end(from.plusDays(3L))
+                .build());
+        // a read that started before the commit puts its result once its own transaction ends
+        cacheManager.getCache(CacheConfig.ITEM_AVAILABILITY)
+                .put(List.of(item.getId(), version, from, to), beforeBooking);
+
+        assertEquals(List.of(new AvailabilityIntervalDto(from.plusDays(2L), from.plusDays(3L))),
+                itemAvailabilityService.findAvailability(item.getId(), from, to).getBusy());
+    }
+
+    @Test
+    void deletingBookerMovesItemToNewVersion() {
+        bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(from.plusDays(2L))
+                .end(from.plusDays(3L))
+                .build());
+        assertEquals(1, itemAvailabilityService.findAvailability(item.getId(), from, to).getBusy().size());
+
+        userService.delete(booker.getId());
+
+        assertEquals(List.of(), itemAvailabilityService.findAvailability(item.getId(), from, to).getBusy());
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemAvailabilityServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 10, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2030, 1, 20, 0, 0);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityService itemAvailabilityService;
+
+    @BeforeEach
+    void init() {
+        itemAvailabilityService = new ItemAvailabilityService(itemRepository, bookingRepository, 100L);
+    }
+
+    @Test
+    void mergesOverlappingAndTouchingPeriodsAndClipsToRange() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemIdAndStartBeforeAndEndAfterAndStatusInOrderByStartAsc(
+                anyLong(), any(), any(), any())).thenReturn(List.of(
+                period(1L, day(8), day(11)),
+                period(2L, day(11), day(12)),
+                period(3L, day(14), day(16)),
+                period(4L, day(15), day(15).plusHours(6)),
+                period(5L, day(19), day(25))));
+
+        ItemAvailabilityDto availability = itemAvailabilityService.findAvailability(1L, FROM, TO);
+
+        assertEquals(List.of(
+                interval(day(10), day(12)),
+                interval(day(14), day(16)),
+                interval(day(19), day(20))), availability.getBusy());
+        assertEquals(List.of(
+                interval(day(12), day(14)),
+                interval(day(16), day(19))), availability.getFree());
+    }
+
+    @Test
+    void itemWithoutBookingsIsFreeForWholeRange() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemIdAndStartBeforeAndEndAfterAndStatusInOrderByStartAsc(
+                anyLong(), any(), any(), any())).thenReturn(List.of());
+
+        ItemAvailabilityDto availability = itemAvailabilityService.findAvailability(1L, FROM, TO);
+
+        assertEquals(List.of(), availability.getBusy());
+        assertEquals(List.of(interval(FROM, TO)), availability.getFree());
+    }
+
+    @Test
+    void emptyRangeIsRejected() {
+        assertThrows(ValidationException.class, () -> itemAvailabilityService.findAvailability(1L, TO, FROM));
+    }
+
+    @Test
+    void unknownItemIsNotFound() {
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemAvailabilityService.findAvailability(1L, FROM, TO));
+    }
+
+    private static LocalDateTime day(int day) {
+        return LocalDateTime.of(2030, 1, day, 0, 0);
+    }
+
+    private static AvailabilityIntervalDto interval(LocalDateTime start, LocalDateTime end) {
+        return new AvailabilityIntervalDto(start, end);
+    }
+
+    private static BookingPeriod period(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
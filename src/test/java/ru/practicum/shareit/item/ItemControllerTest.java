@@ -13,19 +13,28 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.utils.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.utils.Constants.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.utils.Constants.USER_HEADER;
 
 @WebMvcTest(ItemController.class)
@@ -41,9 +50,18 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImporter itemImporter;
+
+    @MockBean
+    private ItemAvailabilityService itemAvailabilityService;
+
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private UserService userService;
+
 
     private final User user = User.builder()
             .id(1L)
@@ -136,10 +154,12 @@ public class ItemControllerTest {
                 .available(true)
                 .build());
 
-        when(itemService.findAll(userId)).thenReturn(itemsDtoToExpect);
+        when(itemService.findAll(userId, from, size)).thenReturn(itemsDtoToExpect);
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/items", from, size)
                         .header(USER_HEADER, userId)
+                        .param("from", from.toString())
+                        .param("size", size.toString())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto)))
                 .andExpect(status().isOk())
@@ -163,13 +183,15 @@ public class ItemControllerTest {
                 .available(true)
                 .build());
 
-        when(itemService.search(userId, text)).thenReturn(itemsDtoToExpect);
+        when(itemService.search(userId, text, from, size)).thenReturn(itemsDtoToExpect);
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/items/search", from, size)
                         .header(USER_HEADER, userId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto))
-                        .param("text", text))
+                        .param("text", text)
+                        .param("from", from.toString())
+                        .param("size", size.toString()))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -178,6 +200,82 @@ public class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(itemsDtoToExpect), result);
     }
 
+    @Test
+    @SneakyThrows
+    void searchItemsAfterCursorReturnsNextCursor() {
+        List<ItemDto> items = List.of(ItemMapper.toItemDto(item));
+        when(itemService.searchAfter(user.getId(), "item", "", 1)).thenReturn(new CursorPage<>(items, "next"));
+
+        mockMvc.perform(get("/items/search")
+                        .header(USER_HEADER, user.getId())
+                        .param("text", "item")
+                        .param("after", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].name").value("item"));
+    }
+
+    @Test
+    @SneakyThrows
+    void searchItemsStreamWritesOneLinePerItem() {
+        ItemDto first = ItemMapper.toItemDto(item);
+        ItemDto second = new ItemDto(2L, "item2", "desc2", true, null);
+        doAnswer(invocation -> {
+            Consumer<ItemDto> consumer = invocation.getArgument(2);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(itemService).streamSearch(eq(user.getId()), eq("item"), any());
+
+        String result = mockMvc.perform(get("/items/search/stream")
+                        .header(USER_HEADER, user.getId())
+                        .param("text", "item"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n",
+                result);
+    }
+
+    @Test
+    @SneakyThrows
+    void addAllStreamsRowResultsAndSummary() {
+        doAnswer(invocation -> {
+            Consumer<ItemImportResult> consumer = invocation.getArgument(2);
+            consumer.accept(new ItemImportResult(0, 5L, null));
+            consumer.accept(new ItemImportResult(1, null, List.of("name must not be blank")));
+            return new ItemImportSummary(1, 1);
+        }).when(itemImporter).importItems(eq(user.getId()), any(), any());
+
+        mockMvc.perform(post("/items/bulk")
+                        .header(USER_HEADER, user.getId())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows[0].row").value(0))
+                .andExpect(jsonPath("$.rows[0].id").value(5))
+                .andExpect(jsonPath("$.rows[0].errors").doesNotExist())
+                .andExpect(jsonPath("$.rows[1].errors[0]").value("name must not be blank"))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    @SneakyThrows
+    void addAllOfUnknownUserIsNotFound() {
+        when(itemImporter.importItems(eq(99L), any(), any())).thenThrow(new NotFoundException("User not found"));
+
+        mockMvc.perform(post("/items/bulk")
+                        .header(USER_HEADER, 99L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @SneakyThrows
     void createValidComment() {
@@ -216,4 +314,34 @@ public class ItemControllerTest {
                                 .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void findAvailabilityParsesRange() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 20, 0, 0);
+        when(itemAvailabilityService.findAvailability(1L, from, to)).thenReturn(new ItemAvailabilityDto(1L, from, to,
+                List.of(new AvailabilityIntervalDto(from, from.plusDays(2L))),
+                List.of(new AvailabilityIntervalDto(from.plusDays(2L), to))));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .header(USER_HEADER, 1)
+                        .param("from", "2030-01-10T00:00:00")
+                        .param("to", "2030-01-20T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy[0].end").value("2030-01-12T00:00:00"))
+                .andExpect(jsonPath("$.free[0].start").value("2030-01-12T00:00:00"));
+    }
+
+    @Test
+    void findAvailabilityForUnknownUserIsNotFound() throws Exception {
+        when(userService.findById(100L)).thenThrow(new NotFoundException("User not found"));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .header(USER_HEADER, 100)
+                        .param("from", "2030-01-10T00:00:00")
+                        .param("to", "2030-01-20T00:00:00"))
+                .andExpect(status().isNotFound());
+
+        verify(itemAvailabilityService, never()).findAvailability(anyLong(), any(), any());
+    }
 }
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.BenchmarkContext;
+import ru.practicum.shareit.JmhOptions;
+import ru.practicum.shareit.item.dto.ItemImportSummary;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a 500 MB NDJSON body generated while it is read and samples the live heap every 100 chunks.
+ * The database is an H2 file, so rows do not pile up in the heap, and search runs on the database,
+ * so the in-memory index does not either. Every import has to create all rows and grow the live heap
+ * by less than 128 MB; the peak is printed after each one.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ItemImportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 2)
+public class ItemImportBenchmark {
+
+    private static final long BODY_SIZE = 500L * 1024 * 1024;
+    private static final int CHUNK_SIZE = 1000;
+    private static final long MAX_HEAP_GROWTH = 128L * 1024 * 1024;
+    private static final String DESCRIPTION = "d".repeat(480);
+
+    private ConfigurableApplicationContext context;
+    private ItemImporter itemImporter;
+    private UserService userService;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private long ownerId;
+    private Body body;
+    private long baseline;
+    private long peak;
+    private ItemImportSummary summary;
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(JmhOptions.of(ItemImportBenchmark.class).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String directory = Files.createTempDirectory("item-import").toAbsolutePath().toString();
+        context = BenchmarkContext.start(
+                "spring.datasource.url=jdbc:h2:file:" + directory + "/shareit",
+                "spring.jpa.show-sql=false",
+                "shareit.search.backend=jpql");
+        itemImporter = context.getBean(ItemImporter.class);
+        userService = context.getBean(UserService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newBody() {
+        ownerId = userService.add(UserDto.builder()
+                .name("owner")
+                .email("owner" + System.nanoTime() + "@email.ru")
+                .build()).getId();
+        body = new Body();
+        baseline = liveHeap();
+        peak = baseline;
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkImport() {
+        System.out.printf("%nrows %d, created %d, failed %d, live heap %d MB before, %d MB peak%n", body.rows,
+                summary.getCreated(), summary.getFailed(), baseline / 1024 / 1024, peak / 1024 / 1024);
+        if (summary.getCreated() != body.rows) {
+            throw new IllegalStateException("Created " + summary.getCreated() + " of " + body.rows + " items");
+        }
+        if (peak - baseline >= MAX_HEAP_GROWTH) {
+            throw new IllegalStateException("Live heap grew by " + (peak - baseline) / 1024 / 1024 + " MB");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemImportSummary importItems() throws IOException {
+        long[] rows = {0};
+        summary = itemImporter.importItems(ownerId, body.stream(), result -> {
+            if (++rows[0] % (100L * CHUNK_SIZE) == 0) {
+                peak = Math.max(peak, liveHeap());
+            }
+        });
+        return summary;
+    }
+
+    private long liveHeap() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * NDJSON of {@link #BODY_SIZE} bytes, each line made when the parser gets to it.
+     */
+    private static class Body {
+        private long bytes;
+        private long rows;
+
+        private InputStream stream() {
+            return new SequenceInputStream(new Enumeration<>() {
+                @Override
+                public boolean hasMoreElements() {
+                    return bytes < BODY_SIZE;
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    byte[] line = ("{\"name\": \"item " + rows + "\", \"description\": \"" + DESCRIPTION
+                            + "\", \"available\": true}\n").getBytes(StandardCharsets.UTF_8);
+                    bytes += line.length;
+                    rows++;
+                    return new ByteArrayInputStream(line);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.ItemImportSummary;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.items.import.chunk-size=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ItemImporterTest {
+
+    @Autowired
+    private ItemImporter itemImporter;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    private UserDto owner;
+
+    @BeforeEach
+    void init() {
+        owner = userService.add(UserDto.builder()
+                .name("owner")
+                .email("owner@email.ru")
+                .build());
+    }
+
+    @Test
+    void importsJsonArrayAndReportsEveryRow() throws IOException {
+        UserDto requestor = userService.add(UserDto.builder()
+                .name("requestor")
+                .email("requestor@email.ru")
+                .build());
+        ItemRequestOutDto request = itemRequestService.add(requestor.getId(),
+                ItemRequestDto.builder().description("need a drill").build());
+        List<ItemImportResult> results = new ArrayList<>();
+
+        ItemImportSummary summary = itemImporter.importItems(owner.getId(), body("["
+                + "{\"name\": \"drill\", \"description\": \"cordless\", \"available\": true, \"requestId\": "
+                + request.getId() + "},"
+                + "{\"name\": \"\", \"description\": \"no name\", \"available\": true},"
+                + "{\"name\": \"saw\", \"description\": \"hand saw\", \"available\": \"maybe\"},"
+                + "{\"name\": \"ladder\", \"description\": \"3 m\", \"available\": false, \"requestId\": 999}"
+                + "]"), results::add);
+
+        assertEquals(new ItemImportSummary(2, 2), summary);
+        assertEquals(List.of(0L, 1L, 2L, 3L), results.stream().map(ItemImportResult::getRow)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("name must not be blank"), results.get(1).getErrors());
+        assertNull(results.get(2).getId());
+        assertTrue(results.get(2).getErrors().get(0).contains("Boolean"));
+
+        List<ItemOutDto> items = itemService.findAll(owner.getId(), 0, 10);
+        assertEquals(List.of("drill", "ladder"), items.stream().map(ItemOutDto::getName)
+                .collect(Collectors.toList()));
+        assertEquals(results.get(0).getId(), items.get(0).getId());
+        assertEquals(request.getId(), items.get(0).getRequestId());
+        assertNull(items.get(1).getRequestId());
+    }
+
+    @Test
+    void importsNdjsonAndMakesItemsSearchable() throws IOException {
+        List<ItemImportResult> results = new ArrayList<>();
+
+        ItemImportSummary summary = itemImporter.importItems(owner.getId(), body(
+                "{\"name\": \"drill\", \"description\": \"cordless\", \"available\": true}\n"
+                        + "{\"name\": \"saw\", \"description\": \"hand saw\", \"available\": true}\n"
+                        + "{\"name\": \"tent\", \"description\": \"for two\", \"available\": true}\n"),
+                results::add);
+
+        assertEquals(new ItemImportSummary(3, 0), summary);
+        results.forEach(result -> assertNotNull(result.getId()));
+        List<ItemDto> found = itemService.search(owner.getId(), "saw", 0, 10);
+        assertEquals(results.get(1).getId(), found.get(0).getId());
+    }
+
+    @Test
+    void malformedBodyKeepsRowsReadBefore() throws IOException {
+        List<ItemImportResult> results = new ArrayList<>();
+
+        ItemImportSummary summary = itemImporter.importItems(owner.getId(), body(
+                "{\"name\": \"drill\", \"description\": \"cordless\", \"available\": true}\n"
+                        + "{\"name\": \"saw\", \"description\": \"hand saw\", \"available\": true}\n"
+                        + "{\"name\": \"tent\", \"description\": \"for two\", \"available\": true}\n"
+                        + "{\"name\": \"broken"), results::add);
+
+        assertEquals(new ItemImportSummary(3, 1), summary);
+        assertEquals(3L, results.get(3).getRow());
+        assertTrue(results.get(3).getErrors().get(0).startsWith("Malformed JSON"));
+        assertEquals(3, itemService.findAll(owner.getId(), 0, 10).size());
+    }
+
+    @Test
+    void unknownOwnerIsRejectedBeforeReading() {
+        assertThrows(NotFoundException.class, () -> itemImporter.importItems(99L, body("[]"), result -> {
+        }));
+    }
+
+    private InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
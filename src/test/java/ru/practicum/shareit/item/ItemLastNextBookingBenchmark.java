@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.BenchmarkContext;
+import ru.practicum.shareit.JmhOptions;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Compares loading every approved booking of the owner's items and reducing them in Java
+ * with the last/next booking query, at 10 000 bookings per item.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ItemLastNextBookingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemLastNextBookingBenchmark {
+
+    private static final int ITEMS = 5;
+    private static final int BOOKINGS_PER_ITEM = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(JmhOptions.of(ItemLastNextBookingBenchmark.class).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        seed(context.getBean(JdbcTemplate.class));
+        List<ItemOutDto> expected = loadAllAndReduce();
+        List<ItemOutDto> actual = lastNextQuery();
+        for (int i = 0; i < ITEMS; i++) {
+            if (!expected.get(i).getLastBooking().getId().equals(actual.get(i).getLastBooking().getId())
+                    || !expected.get(i).getNextBooking().getId().equals(actual.get(i).getNextBooking().getId())) {
+                throw new IllegalStateException("Both approaches have to find the same bookings of item "
+                        + actual.get(i).getId());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemOutDto> lastNextQuery() {
+        return itemService.findAll(1L, 0, ITEMS);
+    }
+
+    /**
+     * The approach used before the last/next query: every approved booking is mapped to a full dto.
+     */
+    @Benchmark
+    public List<ItemOutDto> loadAllAndReduce() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime time = LocalDateTime.now();
+            List<Item> items = itemRepository.findAllByOwnerIdOrderById(1L);
+            Map<Long, List<BookingOutDto>> bookings = bookingRepository
+                    .findAllByItemInAndStatusOrderByStartAsc(items, BookingStatus.APPROVED)
+                    .stream()
+                    .map(BookingMapper::toBookingOut)
+                    .collect(groupingBy(BookingOutDto::getItemId, toList()));
+            List<ItemOutDto> result = new ArrayList<>();
+            for (Item item : items) {
+                List<BookingOutDto> itemBookings = bookings.get(item.getId());
+                ItemOutDto itemOutDto = new ItemOutDto(item.getId(), item.getName(), item.getDescription(),
+                        item.getAvailable());
+                itemBookings.stream()
+                        .filter(booking -> !booking.getStart().isAfter(time))
+                        .max(Comparator.comparing(BookingOutDto::getStart))
+                        .ifPresent(booking -> itemOutDto.setLastBooking(toShort(booking)));
+                itemBookings.stream()
+                        .filter(booking -> booking.getStart().isAfter(time))
+                        .findFirst()
+                        .ifPresent(booking -> itemOutDto.setNextBooking(toShort(booking)));
+                result.add(itemOutDto);
+            }
+            return result;
+        });
+    }
+
+    private BookingShortDto toShort(BookingOutDto booking) {
+        return new BookingShortDto(booking.getId(), booking.getBookerId(),
+                booking.getStart(), booking.getEnd());
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@email.ru')");
+        jdbcTemplate.update("insert into users (id, name, email) values (2, 'booker', 'booker@email.ru')");
+        for (int item = 1; item <= ITEMS; item++) {
+            jdbcTemplate.update("insert into items (id, name, description, available, owner_id) "
+                    + "values (?, 'item', 'desc', true, 1)", item);
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                // most of the history is in the past, the rest is booked ahead
+                LocalDateTime start = now.minusHours(BOOKINGS_PER_ITEM * 9L / 10).plusHours(i);
+                rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)), item});
+            }
+            jdbcTemplate.batchUpdate("insert into bookings (start_time, end_time, item_id, booker_id, status) "
+                    + "values (?, ?, ?, 2, 'APPROVED')", rows);
+        }
+    }
+}
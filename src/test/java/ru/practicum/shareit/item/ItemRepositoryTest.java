@@ -6,12 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.User;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -59,10 +62,17 @@ public class ItemRepositoryTest {
 
     @Test
     void searchAllByDescription() {
-        List<Item> items = itemRepository.search("desc");
+        List<Item> items = itemRepository.search("desc", 0L, PageRequest.of(0, 10));
 
         assertEquals(items.size(), 1);
         assertEquals(items.get(0).getName(), "user");
     }
+
+    @Test
+    void streamSearchByDescription() {
+        try (Stream<Item> items = itemRepository.streamSearch("DESC")) {
+            assertEquals(List.of("user"), items.map(Item::getName).collect(Collectors.toList()));
+        }
+    }
 }
 
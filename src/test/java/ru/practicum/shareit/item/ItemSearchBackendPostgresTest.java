@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The shared corpus on PostgreSQL, where the trigram backend runs on the pg_trgm indexes.
+ * Enabled the same way as {@code BookingIndexPostgresExplainTest}.
+ */
+@EnabledIfSystemProperty(named = "shareit.test.postgres.url", matches = ".+")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${shareit.test.postgres.url}",
+        "spring.datasource.username=${shareit.test.postgres.username:shareit}",
+        "spring.datasource.password=${shareit.test.postgres.password:shareit}"
+})
+public class ItemSearchBackendPostgresTest extends ItemSearchBackendTest {
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
+import ru.practicum.shareit.item.search.JpqlItemSearch;
+import ru.practicum.shareit.item.search.TrigramItemSearch;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.CursorPage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs both database search backends over one corpus, they have to return the same items in the same order,
+ * whether paged by offset, by cursor or streamed.
+ */
+@DataJpaTest
+public class ItemSearchBackendTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private JpqlItemSearch jpqlItemSearch;
+    private TrigramItemSearch trigramItemSearch;
+
+    @BeforeEach
+    void init() {
+        jpqlItemSearch = new JpqlItemSearch(itemRepository, testEntityManager.getEntityManager());
+        trigramItemSearch = new TrigramItemSearch(itemRepository);
+
+        User owner = testEntityManager.persist(new User(null, "owner", "owner@email.ru"));
+        ItemRequest request = testEntityManager.persist(ItemRequest.builder()
+                .description("Нужна дрель")
+                .requestor(owner)
+                .created(LocalDateTime.now())
+                .build());
+        persist(owner, "Дрель", "Простая дрель", true, null);
+        persist(owner, "Дрель ударная", "Мощная, для бетона", true, request);
+        persist(owner, "Отвертка", "Аккумуляторная отвертка", true, null);
+        persist(owner, "Аккумулятор", "Запасной аккумулятор для дрели и отвертки", true, null);
+        persist(owner, "Перфоратор", "Сдан в ремонт, дрель не нужна", false, null);
+        persist(owner, "Stepladder", "Aluminium, 3 STEPS", true, null);
+        persist(owner, "Tent", "Four-person tent 50% off", true, null);
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"дрель", "ДРЕЛ", "рель", "аккумуляторная отвертка", "отв", "step", "Alu", "50%", "a",
+            "нет такого"})
+    void backendsReturnSameItems(String text) {
+        List<ItemDto> expected = jpqlItemSearch.search(text, 0, 100);
+
+        assertEquals(expected, trigramItemSearch.search(text, 0, 100));
+        assertEquals(expected, stream(jpqlItemSearch, text));
+        assertEquals(expected, stream(trigramItemSearch, text));
+        assertEquals(expected, pages(jpqlItemSearch, text));
+        assertEquals(expected, pages(trigramItemSearch, text));
+        expected.forEach(item -> assertFalse(item.getName().equals("Перфоратор")));
+    }
+
+    private List<ItemDto> stream(ItemSearchBackend backend, String text) {
+        try (Stream<ItemDto> items = backend.stream(text)) {
+            return items.collect(Collectors.toList());
+        }
+    }
+
+    private List<ItemDto> pages(ItemSearchBackend backend, String text) {
+        List<ItemDto> items = new ArrayList<>();
+        ItemCursor after = null;
+        do {
+            CursorPage<ItemDto> page = backend.searchAfter(text, after, 2);
+            items.addAll(page.getContent());
+            after = ItemCursor.decode(page.getNextCursor());
+        } while (after != null);
+        return items;
+    }
+
+    private void persist(User owner, String name, String description, boolean available, ItemRequest request) {
+        testEntityManager.persist(new Item(null, name, description, available, owner, request));
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import ru.practicum.shareit.JmhOptions;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.User;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory search index with the LIKE scan of {@code ItemRepository.search} at 1 000 000 items,
+ * and all results of the index with its first page of 20.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ItemSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ItemSearchBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "te", "su", "no", "vi", "da", "pe"};
+    private static final String LIKE_QUERY = "select id, name, description, available from items "
+            + "where available = true and (lower(name) like ? or lower(description) like ?)";
+
+    /**
+     * A whole word found in about 1% of the items and a prefix of ten such words.
+     */
+    @Param({"kalomi", "kalo"})
+    public String text;
+
+    private ItemSearchIndex itemSearchIndex;
+    private Connection connection;
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(JmhOptions.of(ItemSearchBenchmark.class)
+                .jvmArgsAppend("-Xmx3g")
+                .build())
+                .run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        itemSearchIndex = new ItemSearchIndex(null);
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-benchmark", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table items (id bigint primary key, name varchar(255), "
+                    + "description varchar(512), available boolean)");
+        }
+        User owner = User.builder().id(1L).build();
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement("insert into items values (?, ?, ?, true)")) {
+            for (long id = 1; id <= ITEMS; id++) {
+                String name = words(random, 2);
+                String description = words(random, 6);
+                itemSearchIndex.index(Item.builder()
+                        .id(id)
+                        .name(name)
+                        .description(description)
+                        .available(true)
+                        .owner(owner)
+                        .build());
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, description);
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> index() {
+        return itemSearchIndex.search(text, 0, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<ItemDto> indexFirstPage() {
+        return itemSearchIndex.search(text, 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> like() throws SQLException {
+        List<ItemDto> items = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(LIKE_QUERY)) {
+            query.setString(1, "%" + text + "%");
+            query.setString(2, "%" + text + "%");
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    items.add(new ItemDto(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                            resultSet.getBoolean(4), null));
+                }
+            }
+        }
+        return items;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            for (int j = 0; j < 3; j++) {
+                words.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return words.toString();
+    }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.utils.CursorPage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    private final User owner = User.builder()
+            .id(1L)
+            .name("owner")
+            .email("owner@email.ru")
+            .build();
+
+    @BeforeEach
+    void init() {
+        when(itemRepository.findAllSearchable(anyLong(), any())).thenReturn(Collections.emptyList());
+        itemSearchIndex.rebuild();
+        itemSearchIndex.index(item(1L, "Дрель", "Простая дрель", true));
+        itemSearchIndex.index(item(2L, "Отвертка", "Аккумуляторная отвертка", true));
+        itemSearchIndex.index(item(3L, "Аккумулятор", "Запасной аккумулятор для дрели", true));
+        itemSearchIndex.index(item(4L, "Дрель ударная", "Не сдается", false));
+    }
+
+    @Test
+    void searchByPrefix() {
+        assertEquals(List.of(3L, 2L), ids(search("аккум")));
+    }
+
+    @Test
+    void searchAllTerms() {
+        assertEquals(List.of(3L), ids(search("аккумулятор дрели")));
+        assertTrue(search("отвертка дрель").isEmpty());
+    }
+
+    @Test
+    void searchRanksExactNameMatchesFirst() {
+        assertEquals(List.of(1L, 3L), ids(search("ДРЕЛ")));
+        assertEquals(List.of(3L, 2L), ids(search("аккумулятор")));
+    }
+
+    @Test
+    void searchBlankText() {
+        assertTrue(search(" ,. ").isEmpty());
+    }
+
+    @Test
+    void updateReplacesItem() {
+        itemSearchIndex.index(item(1L, "Перфоратор", "Мощный", true));
+        itemSearchIndex.index(item(2L, "Отвертка", "Аккумуляторная отвертка", false));
+
+        assertEquals(List.of(1L), ids(search("перф")));
+        assertEquals(List.of(3L), ids(search("дрел")));
+        assertEquals(List.of(3L), ids(search("аккум")));
+    }
+
+    @Test
+    void userDeletionRemovesItems() {
+        itemSearchIndex.onUserDeleted(new UserDeletedEvent(owner.getId()));
+
+        assertTrue(search("дрель").isEmpty());
+    }
+
+    @Test
+    void userDeletionKeepsItemsOfOtherOwners() {
+        itemSearchIndex.onUserDeleted(new UserDeletedEvent(2L));
+
+        assertEquals(List.of(1L, 3L), ids(search("дрел")));
+    }
+
+    @Test
+    void lateCommitCallbackIndexesCommittedRow() {
+        when(itemRepository.findSearchableById(1L)).thenReturn(Optional.of(searchable(1L, "Перфоратор")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(item(1L, "Шуруповерт", "Мощный", true));
+            itemSearchIndex.index(item(1L, "Перфоратор", "Мощный", true));
+            List<TransactionSynchronization> callbacks = TransactionSynchronizationManager.getSynchronizations();
+
+            // the second update commits first, the callback of the first one runs last
+            callbacks.get(1).afterCommit();
+            callbacks.get(0).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L), ids(search("перф")));
+        assertTrue(search("шуруп").isEmpty());
+    }
+
+    @Test
+    void searchPage() {
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("аккум", 1, 1)));
+        assertTrue(itemSearchIndex.search("аккум", 2, 1).isEmpty());
+        assertEquals(List.of(3L, 2L), ids(itemSearchIndex.search("аккум", 0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void searchAfterCursor() {
+        CursorPage<ItemDto> firstPage = itemSearchIndex.searchAfter("дрел", null, 1);
+        CursorPage<ItemDto> secondPage = itemSearchIndex.searchAfter("дрел",
+                ItemCursor.decode(firstPage.getNextCursor()), 1);
+
+        assertEquals(List.of(1L), ids(firstPage.getContent()));
+        assertEquals(List.of(3L), ids(secondPage.getContent()));
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void streamItemsInIdOrder() {
+        try (Stream<ItemDto> items = itemSearchIndex.stream("аккум")) {
+            assertEquals(List.of(2L, 3L), ids(items.collect(Collectors.toList())));
+        }
+    }
+
+    private List<ItemDto> search(String text) {
+        return itemSearchIndex.search(text, 0, 100);
+    }
+
+    private Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+    private SearchableItem searchable(Long id, String name) {
+        return new SearchableItem() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "Мощный";
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return owner.getId();
+            }
+
+            @Override
+            public Long getRequestId() {
+                return null;
+            }
+        };
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
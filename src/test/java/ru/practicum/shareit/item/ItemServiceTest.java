@@ -5,14 +5,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBooking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
@@ -21,17 +25,24 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.Batches;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +59,9 @@ public class ItemServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemSearchBackend itemSearchBackend;
+
     @InjectMocks
     private ItemService itemService;
 
@@ -195,24 +209,78 @@ public class ItemServiceTest {
 
     @Test
     void searchItems() {
-        when(itemRepository.findAllByOwnerIdOrderById(anyLong())).thenReturn(List.of(item));
+        when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any(Pageable.class))).thenReturn(List.of(item));
 
-        List<ItemOutDto> actualItemsDto = itemService.findAll(1L);
+        List<ItemOutDto> actualItemsDto = itemService.findAll(1L, null, null);
 
         assertEquals(1, actualItemsDto.size());
         assertEquals(1, actualItemsDto.get(0).getId());
         assertEquals("item", actualItemsDto.get(0).getName());
     }
 
+    @Test
+    void findAllAfterCursor() {
+        Item secondItem = Item.builder()
+                .id(2L)
+                .name("item2")
+                .description("desc2")
+                .available(true)
+                .owner(user)
+                .build();
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(1L, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(item, secondItem));
+
+        CursorPage<ItemOutDto> page = itemService.findAllAfter(1L, "", 1);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(1L, ItemCursor.decode(page.getNextCursor()).getId());
+    }
+
+    @Test
+    void findAllEnrichesInBatches() {
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= Batches.IN_CLAUSE_SIZE + 1; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name("item" + id)
+                    .description("desc")
+                    .available(true)
+                    .owner(user)
+                    .build());
+        }
+        when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any(Pageable.class))).thenReturn(items);
+
+        List<ItemOutDto> actualItemsDto = itemService.findAll(1L, 0, items.size());
+
+        assertEquals(items.size(), actualItemsDto.size());
+        verify(commentRepository, times(2)).findAllByItemIdIn(any());
+        verify(bookingRepository, times(2)).findLastAndNextByItemIdIn(any(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void findAllWithLastAndNextBookings() {
+        ItemBooking lastBooking = itemBooking(2L, LocalDateTime.now().minusDays(1L));
+        ItemBooking nextBooking = itemBooking(booking.getId(), booking.getStart());
+        when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any(Pageable.class))).thenReturn(List.of(item));
+        when(bookingRepository.findLastAndNextByItemIdIn(any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking, nextBooking));
+
+        List<ItemOutDto> actualItemsDto = itemService.findAll(1L, null, null);
+
+        assertEquals(2L, actualItemsDto.get(0).getLastBooking().getId());
+        assertEquals(booking.getId(), actualItemsDto.get(0).getNextBooking().getId());
+        assertEquals(user.getId(), actualItemsDto.get(0).getNextBooking().getBookerId());
+    }
+
 
     @Test
     void searchValidText() {
         String text = "text";
 
         when(userService.findById(user.getId())).thenReturn(userDto);
-        when(itemRepository.search(text)).thenReturn(List.of(item));
+        when(itemSearchBackend.search(text, 0, 10)).thenReturn(List.of(itemDto));
 
-        List<ItemDto> actualItemsDto = itemService.search(user.getId(), text);
+        List<ItemDto> actualItemsDto = itemService.search(user.getId(), text, null, null);
 
         assertEquals(1, actualItemsDto.size());
         assertEquals(1, actualItemsDto.get(0).getId());
@@ -225,8 +293,45 @@ public class ItemServiceTest {
 
         when(userService.findById(user.getId())).thenReturn(userDto);
 
-        List<ItemDto> actualItemsDto = itemService.search(user.getId(), text);
+        List<ItemDto> actualItemsDto = itemService.search(user.getId(), text, 0, 10);
 
         assertEquals(0, actualItemsDto.size());
     }
+
+    @Test
+    void searchAfterCursor() {
+        String text = "text";
+        ItemCursor cursor = new ItemCursor(0, 1L);
+
+        when(userService.findById(user.getId())).thenReturn(userDto);
+        when(itemSearchBackend.searchAfter(text, cursor, 1)).thenReturn(new CursorPage<>(List.of(itemDto), "next"));
+
+        CursorPage<ItemDto> page = itemService.searchAfter(user.getId(), text, cursor.encode(), 1);
+
+        assertEquals(List.of(itemDto), page.getContent());
+        assertEquals("next", page.getNextCursor());
+    }
+
+    @Test
+    void streamSearch() {
+        String text = "text";
+        List<ItemDto> items = new ArrayList<>();
+
+        when(userService.findById(user.getId())).thenReturn(userDto);
+        when(itemSearchBackend.stream(text)).thenReturn(Stream.of(itemDto));
+
+        itemService.streamSearch(user.getId(), text, items::add);
+
+        assertEquals(List.of(itemDto), items);
+    }
+
+    private ItemBooking itemBooking(Long id, LocalDateTime start) {
+        ItemBooking itemBooking = mock(ItemBooking.class);
+        lenient().when(itemBooking.getId()).thenReturn(id);
+        lenient().when(itemBooking.getItemId()).thenReturn(item.getId());
+        lenient().when(itemBooking.getBookerId()).thenReturn(user.getId());
+        lenient().when(itemBooking.getStart()).thenReturn(start);
+        lenient().when(itemBooking.getEnd()).thenReturn(start.plusHours(1L));
+        return itemBooking;
+    }
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"shareit.requests.slow.statements=1", "shareit.requests.slow.duration=1m"})
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class RequestLoggingFilterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void requestOverStatementBudgetIsReportedWithItsRequestId(CapturedOutput output) throws Exception {
+        // the first insert reads the sequence and then inserts
+        mvc.perform(post("/users")
+                        .header(RequestLoggingFilter.REQUEST_ID_HEADER, "create-user-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"user\", \"email\": \"user@email.ru\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestLoggingFilter.REQUEST_ID_HEADER, "create-user-1"));
+
+        assertThat(output).containsPattern("\\[create-user-1].* Slow request method=POST uri=/users "
+                + "status=200 durationMs=\\d+ statements=([2-9]|\\d\\d+) jdbcMs=\\d+");
+    }
+
+    @Test
+    void requestWithinBudgetIsNotReported(CapturedOutput output) throws Exception {
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        assertThat(output).doesNotContain("Slow request");
+    }
+
+    @Test
+    void malformedRequestIdIsReplaced() throws Exception {
+        String requestId = mvc.perform(get("/users")
+                        .header(RequestLoggingFilter.REQUEST_ID_HEADER, "bad id\nforged log line"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(RequestLoggingFilter.REQUEST_ID_HEADER);
+
+        assertThat(requestId).matches("[0-9a-f-]{36}");
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.request;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that request listings load the items of a whole page at once:
+ * the number of statements must not depend on the number of requests returned.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemRequestQueryCountTest {
+
+    private static final int REQUESTS = 40;
+    private static final long READER_ID = 1L;
+    private static final long REQUESTOR_ID = 2L;
+
+    @Autowired
+    private ItemRequestService requestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        // rows are replaced behind the entity manager's back
+        entityManagerFactory.getCache().evictAll();
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= 2 + REQUESTS; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@email.ru"});
+        }
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (long id = 1; id <= REQUESTS; id++) {
+            // requests of two requestors and items of different owners, so nothing is served from the session
+            requests.add(new Object[]{id, "request" + id, id % 2 == 0 ? REQUESTOR_ID : READER_ID + 2 + id,
+                    Timestamp.valueOf(created.plusHours(id))});
+            items.add(new Object[]{2 * id - 1, 2 + id, id});
+            items.add(new Object[]{2 * id, 2 + id, id});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requestor_id, created) "
+                + "values (?, ?, ?, ?)", requests);
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id, request_id) "
+                + "values (?, 'item', 'desc', true, ?, ?)", items);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20})
+    void getAllRequestsRunsConstantStatements(int size) {
+        requestService.getAllRequests(READER_ID, PageRequest.of(0, size));
+        statistics.clear();
+
+        List<ItemRequestOutDto> requests = requestService.getAllRequests(READER_ID, PageRequest.of(0, size));
+
+        assertEquals(size, requests.size());
+        requests.forEach(request -> assertEquals(2, request.getItems().size()));
+        // page, count and items of the page; the reader itself is cached by UserService
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserRequestsRunsConstantStatements() {
+        requestService.getUserRequests(REQUESTOR_ID);
+        statistics.clear();
+
+        List<ItemRequestOutDto> requests = requestService.getUserRequests(REQUESTOR_ID);
+
+        assertEquals(REQUESTS / 2, requests.size());
+        requests.forEach(request -> assertEquals(2, request.getItems().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -6,8 +6,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
@@ -24,6 +27,9 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +41,9 @@ public class ItemRequestServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemRepository itemRepository;
+
     @InjectMocks
     private ItemRequestService requestService;
 
@@ -78,13 +87,34 @@ public class ItemRequestServiceTest {
 
     @Test
     void getUserRequests() {
-        List<ItemRequestOutDto> expectedRequestsDto = List.of(ItemRequestMapper.toItemRequestOutDto(request));
+        Item requestItem = requestItem();
+        List<ItemRequestOutDto> expectedRequestsDto = List.of(ItemRequestMapper.toItemRequestOutDto(request,
+                List.of(requestItem)));
         when(userService.findById(user.getId())).thenReturn(userDto);
         when(requestRepository.findAllByRequestorId(userDto.getId())).thenReturn(List.of(request));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(request.getId()))).thenReturn(List.of(requestItem));
 
         List<ItemRequestOutDto> actualRequestsDto = requestService.getUserRequests(userDto.getId());
 
         assertEquals(expectedRequestsDto, actualRequestsDto);
+        assertEquals(request.getId(), actualRequestsDto.get(0).getItems().get(0).getRequestId());
+    }
+
+    @Test
+    void getAllRequestsLoadsItemsOfPageAtOnce() {
+        ItemRequest otherRequest = request.toBuilder().id(2L).items(null).build();
+        Item requestItem = requestItem();
+        when(userService.findById(user.getId())).thenReturn(userDto);
+        when(requestRepository.findAllByRequestorIdNotOrderByCreatedDesc(userDto.getId(), PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(request, otherRequest)));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(requestItem));
+
+        List<ItemRequestOutDto> actualRequestsDto = requestService.getAllRequests(userDto.getId(),
+                PageRequest.of(0, 10));
+
+        assertEquals(1, actualRequestsDto.get(0).getItems().size());
+        assertEquals(List.of(), actualRequestsDto.get(1).getItems());
+        verify(itemRepository, times(1)).findAllByItemRequestIdIn(anyList());
     }
 
     @Test
@@ -110,4 +140,15 @@ public class ItemRequestServiceTest {
         assertEquals(requestNotFoundException.getMessage(), String.format("ItemRequest %s" +
                 " not found.", request.getId()));
     }
+
+    private Item requestItem() {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(user)
+                .itemRequest(request)
+                .build();
+    }
 }
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    private UserDto user;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userService.add(UserDto.builder()
+                .name("user")
+                .email("user@email.ru")
+                .build());
+    }
+
+    @Test
+    void warmHitDoesNotQueryDatabase() {
+        userService.findById(user.getId());
+        statistics.clear();
+
+        UserDto cachedUser = userService.findById(user.getId());
+
+        assertEquals(user, cachedUser);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, cacheGets("hit"));
+        assertEquals(1, cacheGets("miss"));
+    }
+
+    @Test
+    void updateEvictsUser() {
+        userService.findById(user.getId());
+
+        userService.update(user.getId(), UserDto.builder().name("updated").build());
+
+        assertEquals("updated", userService.findById(user.getId()).getName());
+        assertEquals(2, cacheGets("miss"));
+    }
+
+    @Test
+    void deleteEvictsUser() {
+        userService.findById(user.getId());
+
+        userService.delete(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.findById(user.getId()));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.USERS)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}